@@ -0,0 +1,87 @@
+package com.dto;
+
+import com.entity.Cliente;
+import com.entity.Produto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter clienteWriter;
+    private ObjectReader clienteDtoReader;
+    private Cliente cliente;
+    private Produto produto;
+    private List<Cliente> clientes;
+    private String clienteDtoJson;
+    private String produtoDtoJson;
+    private byte[] clienteDtoBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = new ObjectMapper();
+        clienteWriter = objectMapper.writerFor(Cliente.class);
+        clienteDtoReader = objectMapper.readerFor(ClienteDTO.class);
+        cliente = new Cliente(42L, "Maria da Silva", "maria@exemplo.com", "11999990000", "Rua das Flores, 123", 0L);
+        produto = new Produto("0b6f7a52-0c1e-4b55-9b9f-3c1f1f0e8a11", "Teclado", new BigDecimal("199.90"), "Teclado mecânico", 0L);
+        clientes = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            clientes.add(new Cliente(i, "Cliente " + i, "cliente" + i + "@exemplo.com", "11999990000", "Rua " + i, 0L));
+        }
+        clienteDtoJson = objectMapper.writeValueAsString(new ClienteDTO("Maria", "maria@exemplo.com", "11999990000", "Rua 1"));
+        produtoDtoJson = objectMapper.writeValueAsString(new ProdutoDTO("Teclado", new BigDecimal("199.90"), "Teclado mecânico"));
+        clienteDtoBytes = clienteDtoJson.getBytes();
+    }
+
+    @Benchmark
+    public String serializarCliente() throws IOException {
+        return objectMapper.writeValueAsString(cliente);
+    }
+
+    @Benchmark
+    public byte[] serializarClienteWriterPreconfigurado() throws IOException {
+        return clienteWriter.writeValueAsBytes(cliente);
+    }
+
+    @Benchmark
+    public String serializarProduto() throws IOException {
+        return objectMapper.writeValueAsString(produto);
+    }
+
+    @Benchmark
+    public String serializarListaClientes() throws IOException {
+        return objectMapper.writeValueAsString(clientes);
+    }
+
+    @Benchmark
+    public ClienteDTO desserializarClienteDTO() throws IOException {
+        return objectMapper.readValue(clienteDtoJson, ClienteDTO.class);
+    }
+
+    @Benchmark
+    public ClienteDTO desserializarClienteDTOReaderPreconfigurado() throws IOException {
+        return clienteDtoReader.readValue(clienteDtoBytes);
+    }
+
+    @Benchmark
+    public ProdutoDTO desserializarProdutoDTO() throws IOException {
+        return objectMapper.readValue(produtoDtoJson, ProdutoDTO.class);
+    }
+}
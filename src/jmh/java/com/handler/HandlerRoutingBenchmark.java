@@ -0,0 +1,84 @@
+package com.handler;
+
+import com.config.JsonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.repository.InMemoryClienteRepository;
+import com.repository.InMemoryProdutoRepository;
+import com.service.ClienteService;
+import com.service.ProdutoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HandlerRoutingBenchmark {
+
+    private ClienteHttpHandler clienteHandler;
+    private ProdutoHttpHandler produtoHandler;
+    private FakeHttpExchange exchange;
+    private String produtoPath;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = JsonConfig.getObjectMapper();
+        InMemoryClienteRepository clienteRepository = new InMemoryClienteRepository().popular(1_000);
+        InMemoryProdutoRepository produtoRepository = new InMemoryProdutoRepository().popular(1_000);
+
+        clienteHandler = new ClienteHttpHandler(new ClienteService(clienteRepository), objectMapper);
+        produtoHandler = new ProdutoHttpHandler(new ProdutoService(produtoRepository), objectMapper);
+        exchange = new FakeHttpExchange();
+        produtoPath = "/api/produtos/" + produtoRepository.ids().get(500);
+    }
+
+    @Benchmark
+    public int getClientePorId() throws IOException {
+        clienteHandler.handle(exchange.reset("GET", "/api/clientes/500", null));
+        return exchange.getResponseCode();
+    }
+
+    @Benchmark
+    public int getPaginaClientes() throws IOException {
+        clienteHandler.handle(exchange.reset("GET", "/api/clientes?after=100&limit=50", null));
+        return exchange.getResponseCode();
+    }
+
+    @Benchmark
+    public int putEmailCliente() throws IOException {
+        clienteHandler.handle(exchange.reset("PUT", "/api/clientes/500/email", "{\"novoEmail\":\"novo@exemplo.com\"}"));
+        return exchange.getResponseCode();
+    }
+
+    @Benchmark
+    public int putCliente() throws IOException {
+        clienteHandler.handle(exchange.reset("PUT", "/api/clientes/500",
+                "{\"nome\":\"Cliente\",\"email\":\"cliente@exemplo.com\",\"telefone\":\"11999990000\",\"endereco\":\"Rua 1\"}"));
+        return exchange.getResponseCode();
+    }
+
+    @Benchmark
+    public int getProdutoPorId() throws IOException {
+        produtoHandler.handle(exchange.reset("GET", produtoPath, null));
+        return exchange.getResponseCode();
+    }
+
+    @Benchmark
+    public int getPaginaProdutos() throws IOException {
+        produtoHandler.handle(exchange.reset("GET", "/api/produtos?limit=50", null));
+        return exchange.getResponseCode();
+    }
+
+    @Benchmark
+    public int getProdutoInexistente() throws IOException {
+        produtoHandler.handle(exchange.reset("GET", "/api/produtos/nao-existe", null));
+        return exchange.getResponseCode();
+    }
+}
@@ -0,0 +1,49 @@
+package com.repository;
+
+import com.entity.Produto;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProdutoDocumentBenchmark {
+
+    private ProdutoRepository repository;
+    private Document documento;
+    private Document documentoSemPreco;
+
+    @Setup
+    public void setup() {
+        repository = new ProdutoRepository(null);
+        documento = new Document()
+                .append("_id", "0b6f7a52-0c1e-4b55-9b9f-3c1f1f0e8a11")
+                .append("nome", "Teclado")
+                .append("preco", new Decimal128(new BigDecimal("199.90")))
+                .append("descricao", "Teclado mecânico");
+        documentoSemPreco = new Document()
+                .append("_id", "0b6f7a52-0c1e-4b55-9b9f-3c1f1f0e8a12")
+                .append("nome", "Mouse")
+                .append("descricao", "Mouse sem fio");
+    }
+
+    @Benchmark
+    public Produto documentToProduto() {
+        return repository.documentToProduto(documento);
+    }
+
+    @Benchmark
+    public Produto documentToProdutoSemPreco() {
+        return repository.documentToProduto(documentoSemPreco);
+    }
+}
@@ -0,0 +1,68 @@
+package com.service;
+
+import com.dto.PaginaDTO;
+import com.entity.Cliente;
+import com.entity.Produto;
+import com.repository.InMemoryClienteRepository;
+import com.repository.InMemoryProdutoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServiceRepositoryBenchmark {
+
+    private static final int QUANTIDADE = 10_000;
+
+    private ClienteService clienteServiceComCache;
+    private ClienteService clienteServiceSemCache;
+    private ProdutoService produtoService;
+    private List<String> produtoIds;
+
+    @Setup
+    public void setup() {
+        InMemoryClienteRepository clienteRepository = new InMemoryClienteRepository().popular(QUANTIDADE);
+        clienteServiceComCache = new ClienteService(clienteRepository, new LocalCache<>(QUANTIDADE, 60_000L));
+        clienteServiceSemCache = new ClienteService(clienteRepository, new LocalCache<>(1, 0L));
+
+        InMemoryProdutoRepository produtoRepository = new InMemoryProdutoRepository().popular(QUANTIDADE);
+        produtoService = new ProdutoService(produtoRepository);
+        produtoIds = produtoRepository.ids();
+    }
+
+    @Benchmark
+    public Optional<Cliente> buscarClienteComCache() {
+        return clienteServiceComCache.buscarPorId(ThreadLocalRandom.current().nextLong(1, QUANTIDADE + 1));
+    }
+
+    @Benchmark
+    public Optional<Cliente> buscarClienteSemCache() {
+        return clienteServiceSemCache.buscarPorId(ThreadLocalRandom.current().nextLong(1, QUANTIDADE + 1));
+    }
+
+    @Benchmark
+    public PaginaDTO<Cliente> listarPaginaClientes() {
+        return clienteServiceComCache.listarPagina(ThreadLocalRandom.current().nextLong(0, QUANTIDADE), 50);
+    }
+
+    @Benchmark
+    public Optional<Produto> buscarProduto() {
+        return produtoService.buscarPorId(produtoIds.get(ThreadLocalRandom.current().nextInt(QUANTIDADE)));
+    }
+
+    @Benchmark
+    public PaginaDTO<Produto> listarPaginaProdutos() {
+        return produtoService.listarPagina(produtoIds.get(ThreadLocalRandom.current().nextInt(QUANTIDADE)), 50);
+    }
+}
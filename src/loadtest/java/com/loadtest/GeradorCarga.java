@@ -0,0 +1,345 @@
+package com.loadtest;
+
+import com.Aplicacao;
+import com.config.BoundedExecutor;
+import com.entity.Cliente;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.repository.InMemoryClienteRepository;
+import com.repository.InMemoryProdutoRepository;
+import com.service.ClienteService;
+import com.service.ProdutoService;
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em modelo aberto: as requisições são disparadas em intervalos fixos,
+ * independentemente das respostas anteriores, e a latência é medida a partir do instante
+ * planejado de envio (sem omissão coordenada).
+ *
+ * <p>Sobe o mesmo servidor de {@link Aplicacao} com repositórios em memória e um publisher
+ * do Redis sem efeito, então não precisa de PostgreSQL, MongoDB nem Redis.</p>
+ */
+public class GeradorCarga {
+
+    private static final long MAX_LATENCIA_REGISTRAVEL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final double NANOS_POR_MS = 1_000_000.0;
+
+    private final int rps;
+    private final long duracaoNanos;
+    private final long aquecimentoNanos;
+    private final int maxEmVoo;
+    private final int quantidadeInicial;
+    private final Operacao[] sorteio;
+    private final PrintStream saida;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operacao, Recorder> recorders = new EnumMap<>(Operacao.class);
+    private final Map<Operacao, Histogram> acumulados = new EnumMap<>(Operacao.class);
+    private final Recorder recorderTotal = new Recorder(MAX_LATENCIA_REGISTRAVEL_NANOS, 3);
+    private final ConcurrentLinkedQueue<Long> clientesCriados = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> produtosCriados = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder respostas2xx = new LongAdder();
+    private final LongAdder respostas4xx = new LongAdder();
+    private final LongAdder respostas5xx = new LongAdder();
+    private final LongAdder errosTransporte = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+
+    public GeradorCarga(int rps, long duracaoSegundos, long aquecimentoSegundos, int maxEmVoo,
+                        int quantidadeInicial, Map<Operacao, Integer> mix, PrintStream saida) {
+        if (rps <= 0) {
+            throw new IllegalArgumentException("carga.rps deve ser positivo");
+        }
+        this.rps = rps;
+        this.duracaoNanos = TimeUnit.SECONDS.toNanos(duracaoSegundos);
+        this.aquecimentoNanos = TimeUnit.SECONDS.toNanos(aquecimentoSegundos);
+        this.maxEmVoo = maxEmVoo;
+        this.quantidadeInicial = quantidadeInicial;
+        this.sorteio = montarSorteio(mix);
+        this.saida = saida;
+        for (Operacao operacao : Operacao.values()) {
+            recorders.put(operacao, new Recorder(MAX_LATENCIA_REGISTRAVEL_NANOS, 3));
+            acumulados.put(operacao, new Histogram(MAX_LATENCIA_REGISTRAVEL_NANOS, 3));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        GeradorCarga gerador = new GeradorCarga(
+                Integer.getInteger("carga.rps", 2_000),
+                Long.getLong("carga.duracaoSegundos", 30L),
+                Long.getLong("carga.aquecimentoSegundos", 5L),
+                Integer.getInteger("carga.maxEmVoo", 10_000),
+                Integer.getInteger("carga.quantidadeInicial", 10_000),
+                Operacao.parseMix(System.getProperty("carga.mix", Operacao.MIX_PADRAO)),
+                System.out);
+
+        InMemoryClienteRepository clienteRepository = new InMemoryClienteRepository().popular(gerador.quantidadeInicial);
+        InMemoryProdutoRepository produtoRepository = new InMemoryProdutoRepository().popular(gerador.quantidadeInicial);
+        ClienteService clienteService = new ClienteService(clienteRepository);
+        ProdutoService produtoService = new ProdutoService(produtoRepository);
+
+        BoundedExecutor executor = Aplicacao.criarExecutor();
+        HttpServer server = Aplicacao.criarServidor(Integer.getInteger("carga.porta", 0),
+                clienteService, produtoService, executor);
+        server.start();
+        try {
+            URI base = URI.create("http://localhost:" + server.getAddress().getPort());
+            gerador.executar(base, clienteRepository.listarTodos().stream().map(Cliente::id).toList(),
+                    produtoRepository.ids());
+        } finally {
+            server.stop(0);
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    public void executar(URI base, List<Long> clienteIds, List<String> produtoIds) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), r -> {
+                    Thread thread = new Thread(r, "carga-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+        Semaphore emVoo = new Semaphore(maxEmVoo);
+        long intervaloNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long inicio = System.nanoTime();
+        long fimAquecimento = inicio + aquecimentoNanos;
+        long fim = fimAquecimento + duracaoNanos;
+        long proximoRelatorio = fimAquecimento + TimeUnit.SECONDS.toNanos(1);
+        Histogram intervalo = null;
+
+        saida.printf("Gerando %d req/s por %d s (+%d s de aquecimento) contra %s%n",
+                rps, TimeUnit.NANOSECONDS.toSeconds(duracaoNanos), TimeUnit.NANOSECONDS.toSeconds(aquecimentoNanos), base);
+
+        for (long i = 0; ; i++) {
+            long planejado = inicio + i * intervaloNanos;
+            if (planejado >= fim) {
+                break;
+            }
+            long espera = planejado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            boolean medir = planejado >= fimAquecimento;
+            if (medir && System.nanoTime() >= proximoRelatorio) {
+                intervalo = recorderTotal.getIntervalHistogram(intervalo);
+                imprimirIntervalo(intervalo);
+                proximoRelatorio += TimeUnit.SECONDS.toNanos(1);
+            }
+            if (!emVoo.tryAcquire()) {
+                // O gerador não espera o servidor: acima do limite a requisição conta como perdida
+                if (medir) {
+                    descartadas.increment();
+                }
+                continue;
+            }
+            disparar(client, base, sortear(), planejado, medir, clienteIds, produtoIds, emVoo);
+        }
+
+        if (!emVoo.tryAcquire(maxEmVoo, 30, TimeUnit.SECONDS)) {
+            saida.println("Aviso: requisições ainda pendentes após 30 s");
+        }
+        imprimirRelatorioFinal();
+    }
+
+    private void disparar(HttpClient client, URI base, Operacao operacao, long planejado, boolean medir,
+                          List<Long> clienteIds, List<String> produtoIds, Semaphore emVoo) {
+        HttpRequest request = montarRequisicao(base, operacao, clienteIds, produtoIds);
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, erro) -> {
+                    try {
+                        if (status201(response, erro)) {
+                            guardarCriado(operacao, response.body());
+                        }
+                        // Requisições planejadas no aquecimento não entram nas estatísticas
+                        if (!medir) {
+                            return;
+                        }
+                        long latencia = Math.min(System.nanoTime() - planejado, MAX_LATENCIA_REGISTRAVEL_NANOS);
+                        recorderTotal.recordValue(latencia);
+                        recorders.get(operacao).recordValue(latencia);
+                        if (erro != null) {
+                            errosTransporte.increment();
+                            return;
+                        }
+                        int status = response.statusCode();
+                        if (status >= 500) {
+                            respostas5xx.increment();
+                        } else if (status >= 400) {
+                            respostas4xx.increment();
+                        } else {
+                            respostas2xx.increment();
+                        }
+                    } finally {
+                        emVoo.release();
+                    }
+                });
+    }
+
+    private HttpRequest montarRequisicao(URI base, Operacao operacao, List<Long> clienteIds, List<String> produtoIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long sufixo = random.nextLong(1_000_000_000L);
+        switch (operacao) {
+            case GET_CLIENTE:
+                return get(base, "/api/clientes/" + aleatorio(clienteIds));
+            case LISTAR_CLIENTES:
+                return get(base, "/api/clientes?after=" + aleatorio(clienteIds) + "&limit=50");
+            case POST_CLIENTE:
+                return comCorpo(base, "/api/clientes", "POST", corpoCliente(sufixo));
+            case PUT_CLIENTE:
+                return comCorpo(base, "/api/clientes/" + aleatorio(clienteIds), "PUT", corpoCliente(sufixo));
+            case DELETE_CLIENTE:
+                return HttpRequest.newBuilder(base.resolve("/api/clientes/" + clientesCriados.poll())).DELETE().build();
+            case GET_PRODUTO:
+                return get(base, "/api/produtos/" + aleatorio(produtoIds));
+            case LISTAR_PRODUTOS:
+                return get(base, "/api/produtos?after=" + aleatorio(produtoIds) + "&limit=50");
+            case POST_PRODUTO:
+                return comCorpo(base, "/api/produtos", "POST", corpoProduto(sufixo));
+            case PUT_PRODUTO:
+                return comCorpo(base, "/api/produtos/" + aleatorio(produtoIds), "PUT", corpoProduto(sufixo));
+            case DELETE_PRODUTO:
+            default:
+                return HttpRequest.newBuilder(base.resolve("/api/produtos/" + produtosCriados.poll())).DELETE().build();
+        }
+    }
+
+    private void guardarCriado(Operacao operacao, String corpo) {
+        try {
+            JsonNode id = objectMapper.readTree(corpo).get("id");
+            if (id == null) {
+                return;
+            }
+            if (operacao == Operacao.POST_CLIENTE) {
+                clientesCriados.add(id.asLong());
+            } else if (operacao == Operacao.POST_PRODUTO) {
+                produtosCriados.add(id.asText());
+            }
+        } catch (Exception e) {
+            // resposta sem JSON válido: o item só não será reaproveitado nos DELETEs
+        }
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+    }
+
+    private static HttpRequest comCorpo(URI base, String path, String metodo, String corpo) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .method(metodo, HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private static String corpoCliente(long sufixo) {
+        return "{\"nome\":\"Cliente Carga " + sufixo + "\",\"email\":\"carga" + sufixo + "@exemplo.com\","
+                + "\"telefone\":\"11999990000\",\"endereco\":\"Rua da Carga, " + sufixo + "\"}";
+    }
+
+    private static String corpoProduto(long sufixo) {
+        return "{\"nome\":\"Produto Carga " + sufixo + "\",\"preco\":" + (sufixo % 10_000) / 100.0 + ",\"descricao\":\"Gerado pelo teste de carga\"}";
+    }
+
+    private static <T> T aleatorio(List<T> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private Operacao sortear() {
+        Operacao operacao = sorteio[ThreadLocalRandom.current().nextInt(sorteio.length)];
+        // DELETE remove apenas o que o próprio teste criou, para não esvaziar a massa usada nas leituras;
+        // enquanto não há nada criado, a vaga vira uma leitura do mesmo recurso
+        if (operacao == Operacao.DELETE_CLIENTE && clientesCriados.isEmpty()) {
+            return Operacao.GET_CLIENTE;
+        }
+        if (operacao == Operacao.DELETE_PRODUTO && produtosCriados.isEmpty()) {
+            return Operacao.GET_PRODUTO;
+        }
+        return operacao;
+    }
+
+    private static boolean status201(HttpResponse<String> response, Throwable erro) {
+        return erro == null && response.statusCode() == 201;
+    }
+
+    private static Operacao[] montarSorteio(Map<Operacao, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Operacao[] tabela = new Operacao[total];
+        int posicao = 0;
+        for (Map.Entry<Operacao, Integer> entrada : mix.entrySet()) {
+            for (int i = 0; i < entrada.getValue(); i++) {
+                tabela[posicao++] = entrada.getKey();
+            }
+        }
+        return tabela;
+    }
+
+    private void imprimirIntervalo(Histogram intervalo) {
+        saida.printf("  %6d req/s  p50=%8.3f ms  p99=%8.3f ms  max=%8.3f ms%n",
+                intervalo.getTotalCount(),
+                intervalo.getValueAtPercentile(50) / NANOS_POR_MS,
+                intervalo.getValueAtPercentile(99) / NANOS_POR_MS,
+                intervalo.getMaxValue() / NANOS_POR_MS);
+        acumularPorOperacao();
+    }
+
+    private void acumularPorOperacao() {
+        for (Map.Entry<Operacao, Recorder> entrada : recorders.entrySet()) {
+            acumulados.get(entrada.getKey()).add(entrada.getValue().getIntervalHistogram());
+        }
+    }
+
+    private void imprimirRelatorioFinal() {
+        acumularPorOperacao();
+        Histogram total = new Histogram(MAX_LATENCIA_REGISTRAVEL_NANOS, 3);
+        acumulados.values().forEach(total::add);
+        double segundos = duracaoNanos / 1_000_000_000.0;
+
+        saida.println();
+        saida.println("=== Resultado ===");
+        saida.printf("Requisições: %d (%.1f req/s de %d planejadas)%n", total.getTotalCount(), total.getTotalCount() / segundos, rps);
+        saida.printf("2xx=%d 4xx=%d 5xx=%d erros=%d descartadas=%d%n",
+                respostas2xx.sum(), respostas4xx.sum(), respostas5xx.sum(), errosTransporte.sum(), descartadas.sum());
+        saida.println();
+        saida.printf("%-16s %10s %10s %10s %10s %10s%n", "operação", "total", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operacao, Histogram> entrada : acumulados.entrySet()) {
+            if (entrada.getValue().getTotalCount() > 0) {
+                imprimirLinha(entrada.getKey().name(), entrada.getValue());
+            }
+        }
+        imprimirLinha("TOTAL", total);
+        saida.println();
+        saida.println("Distribuição completa (ms):");
+        total.outputPercentileDistribution(saida, NANOS_POR_MS);
+    }
+
+    private void imprimirLinha(String nome, Histogram histograma) {
+        saida.printf("%-16s %10d %10.3f %10.3f %10.3f %10.3f%n", nome, histograma.getTotalCount(),
+                histograma.getValueAtPercentile(50) / NANOS_POR_MS,
+                histograma.getValueAtPercentile(99) / NANOS_POR_MS,
+                histograma.getValueAtPercentile(99.9) / NANOS_POR_MS,
+                histograma.getMaxValue() / NANOS_POR_MS);
+    }
+}
@@ -0,0 +1,40 @@
+package com.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public enum Operacao {
+    GET_CLIENTE,
+    LISTAR_CLIENTES,
+    POST_CLIENTE,
+    PUT_CLIENTE,
+    DELETE_CLIENTE,
+    GET_PRODUTO,
+    LISTAR_PRODUTOS,
+    POST_PRODUTO,
+    PUT_PRODUTO,
+    DELETE_PRODUTO;
+
+    public static final String MIX_PADRAO = "GET_CLIENTE=35,LISTAR_CLIENTES=5,POST_CLIENTE=8,PUT_CLIENTE=5,DELETE_CLIENTE=2,"
+            + "GET_PRODUTO=30,LISTAR_PRODUTOS=5,POST_PRODUTO=5,PUT_PRODUTO=3,DELETE_PRODUTO=2";
+
+    // Formato: OPERACAO=peso separados por vírgula; operações ausentes ficam com peso zero
+    public static Map<Operacao, Integer> parseMix(String mix) {
+        Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+        for (String parte : mix.split(",")) {
+            String[] chaveValor = parte.trim().split("=");
+            if (chaveValor.length != 2) {
+                throw new IllegalArgumentException("Entrada inválida no mix de operações: " + parte);
+            }
+            int peso = Integer.parseInt(chaveValor[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso negativo no mix de operações: " + parte);
+            }
+            pesos.put(Operacao.valueOf(chaveValor[0].trim().toUpperCase()), peso);
+        }
+        if (pesos.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("O mix de operações precisa de ao menos um peso positivo");
+        }
+        return pesos;
+    }
+}
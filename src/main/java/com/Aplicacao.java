@@ -1,17 +1,36 @@
 package com;
 
+import com.config.AppConfig;
+import com.config.BoundedExecutor;
+import com.config.DatabaseMigrator;
+import com.config.ExecutionMode;
+import com.config.JsonConfig;
+import com.config.MetricsRegistry;
+import com.config.MongoConfig;
+import com.config.PostgresConfig;
 import com.config.RedisPublisher;
+import com.dto.InvalidacaoCacheDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.handler.AccessLogFilter;
 import com.handler.ClienteHttpHandler;
+import com.handler.MetricsFilter;
+import com.handler.MetricsHttpHandler;
+import com.handler.OverloadFilter;
 import com.handler.ProdutoHttpHandler;
 import com.repository.ClienteRepository;
+import com.repository.OutboxRepository;
 import com.repository.ProdutoRepository;
 import com.service.ClienteService;
+import com.service.OutboxRelay;
 import com.service.ProdutoService;
+import com.sun.net.httpserver.HttpContext;
 import com.sun.net.httpserver.HttpServer;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 @Slf4j
 public class Aplicacao {
@@ -19,30 +38,110 @@ public class Aplicacao {
     public static void main(String[] args) throws Exception {
         log.info("### INICIANDO SERVIÇO DE CADASTROS ###");
 
-        ClienteRepository clienteRepository = new ClienteRepository();
+        if (AppConfig.getBoolean("db.migracoes.habilitadas", true)) {
+            DatabaseMigrator.migrate();
+        }
+
+        OutboxRepository outboxRepository = new OutboxRepository(JsonConfig.getObjectMapper());
+        ClienteRepository clienteRepository = new ClienteRepository(outboxRepository);
         RedisPublisher redisPublisher = new RedisPublisher();
-        ClienteService clienteService = new ClienteService(clienteRepository, redisPublisher);
-        ClienteHttpHandler clienteHandler = new ClienteHttpHandler(clienteService, new ObjectMapper());
+        OutboxRelay outboxRelay = new OutboxRelay(outboxRepository, redisPublisher,
+                AppConfig.getInt("outbox.relay.tamanhoLote", 500),
+                AppConfig.getLong("outbox.relay.intervaloMs", 200L));
+        ClienteService clienteService = new ClienteService(clienteRepository);
+        // Invalidação entre instâncias pelos eventos do outbox, gravados na transação da escrita
+        redisPublisher.subscribe(ClienteRepository.TOPICO_CLIENTE_ATUALIZADO, InvalidacaoCacheDTO.class,
+                clienteService::onInvalidacaoRemota);
+        redisPublisher.subscribe(ClienteRepository.TOPICO_CLIENTE_REMOVIDO, InvalidacaoCacheDTO.class,
+                clienteService::onInvalidacaoRemota);
 
         ProdutoRepository produtoRepository = new ProdutoRepository();
+        if (AppConfig.getBoolean("produtos.indices.criarNaInicializacao", true)) {
+            produtoRepository.criarIndices();
+        }
         ProdutoService produtoService = new ProdutoService(produtoRepository);
-        ProdutoHttpHandler produtoHandler = new ProdutoHttpHandler(produtoService, new ObjectMapper());
 
-        HttpServer server = HttpServer.create(new InetSocketAddress(8080), 0);
-        server.createContext("/api/clientes", clienteHandler);
-        server.createContext("/api/produtos", produtoHandler); // <-- REGISTRAMOS A NOVA ROTA
-        server.setExecutor(null);
+        int port = AppConfig.getInt("server.port", 8080);
+        BoundedExecutor executor = criarExecutor();
+        HttpServer server = criarServidor(port, clienteService, produtoService, executor);
+        registrarMetricas(executor, clienteService);
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             log.info("\n### DESLIGANDO SERVIÇO DE CADASTROS ###");
             server.stop(1);
+            if (executor != null) {
+                executor.shutdown();
+            }
+            outboxRelay.parar();
             RedisPublisher.close();
+            PostgresConfig.closePool();
+            MongoConfig.closeConnection();
             log.info("Recursos liberados. Servidor desligado.");
         }));
 
+        outboxRelay.iniciar();
         server.start();
-        log.info("Servidor rodando em http://localhost:8080");
-        log.info("Endpoints disponíveis: /api/clientes, /api/produtos");
+        log.info("Servidor rodando em http://localhost:{}", port);
+        log.info("Endpoints disponíveis: /api/clientes, /api/produtos, /metrics");
         log.info("Pressione Ctrl+C para parar.");
     }
+
+    public static BoundedExecutor criarExecutor() {
+        return BoundedExecutor.forMode(
+                ExecutionMode.from(AppConfig.getString("server.executor.mode", "VIRTUAL")),
+                AppConfig.getInt("server.executor.maxConcurrent", 256),
+                AppConfig.getInt("server.executor.queueLimit", 1024));
+    }
+
+    // Monta as rotas sobre serviços já construídos; o harness de carga usa o mesmo caminho com repositórios em memória
+    public static HttpServer criarServidor(int port, ClienteService clienteService, ProdutoService produtoService,
+                                           Executor executor) throws IOException {
+        ObjectMapper objectMapper = JsonConfig.getObjectMapper();
+        ClienteHttpHandler clienteHandler = new ClienteHttpHandler(clienteService, objectMapper);
+        ProdutoHttpHandler produtoHandler = new ProdutoHttpHandler(produtoService, objectMapper);
+        OverloadFilter overloadFilter = new OverloadFilter();
+        AccessLogFilter accessLogFilter = new AccessLogFilter();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        HttpContext clientes = server.createContext("/api/clientes", clienteHandler);
+        clientes.getFilters().add(overloadFilter);
+        clientes.getFilters().add(new MetricsFilter("/api/clientes", Set.of("batch", "email")));
+        clientes.getFilters().add(accessLogFilter);
+        HttpContext produtos = server.createContext("/api/produtos", produtoHandler); // <-- REGISTRAMOS A NOVA ROTA
+        produtos.getFilters().add(overloadFilter);
+        produtos.getFilters().add(new MetricsFilter("/api/produtos", Set.of("batch")));
+        produtos.getFilters().add(accessLogFilter);
+        server.createContext("/metrics", new MetricsHttpHandler());
+        server.setExecutor(executor);
+        return server;
+    }
+
+    private static void registrarMetricas(BoundedExecutor executor, ClienteService clienteService) {
+        MetricsRegistry.gauge("db_pool_connections", "Conexões do pool do PostgreSQL",
+                () -> PostgresConfig.getPoolStats().active(), "state", "active");
+        MetricsRegistry.gauge("db_pool_connections", "Conexões do pool do PostgreSQL",
+                () -> PostgresConfig.getPoolStats().idle(), "state", "idle");
+        MetricsRegistry.gauge("db_pool_waiting_threads", "Threads aguardando conexão do pool do PostgreSQL",
+                () -> PostgresConfig.getPoolStats().waiting());
+        MetricsRegistry.gauge("db_pool_acquire_timeouts", "Timeouts ao obter conexão do pool do PostgreSQL",
+                () -> PostgresConfig.getPoolStats().timeouts());
+        MetricsRegistry.gauge("mongo_pool_connections", "Conexões do pool do MongoDB",
+                () -> MongoConfig.getPoolStats().checkedOut(), "state", "checked_out");
+        MetricsRegistry.gauge("mongo_pool_connections", "Conexões do pool do MongoDB",
+                () -> MongoConfig.getPoolStats().open(), "state", "open");
+        MetricsRegistry.gauge("mongo_pool_waiting_threads", "Threads aguardando conexão do pool do MongoDB",
+                () -> MongoConfig.getPoolStats().waiting());
+        MetricsRegistry.gauge("cache_clientes_size", "Entradas no cache local de clientes",
+                () -> clienteService.getCacheStats().size());
+        MetricsRegistry.gauge("cache_clientes_hit_ratio", "Taxa de acerto do cache local de clientes",
+                () -> clienteService.getCacheStats().hitRatio());
+        if (executor != null) {
+            MetricsRegistry.gauge("http_executor_in_flight", "Requisições admitidas no executor HTTP",
+                    executor::getInFlight);
+            MetricsRegistry.gauge("http_executor_rejected", "Requisições rejeitadas por saturação",
+                    executor::getRejected);
+            MetricsRegistry.gauge("http_executor_dropped", "Conexões fechadas sem resposta por saturação",
+                    executor::getDropped);
+        }
+    }
 }
\ No newline at end of file
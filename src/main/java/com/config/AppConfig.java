@@ -0,0 +1,57 @@
+package com.config;
+
+import com.exception.DatabaseConfigException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+@Slf4j
+public class AppConfig {
+
+    private static Properties props;
+
+    private AppConfig() {
+    }
+
+    static {
+        loadProperties();
+    }
+
+    private static void loadProperties() {
+        props = new Properties();
+        try (InputStream input = AppConfig.class.getClassLoader()
+                .getResourceAsStream("application.properties")) {
+            if (input == null) {
+                log.warn("Arquivo application.properties não encontrado, usando valores padrão");
+                return;
+            }
+            props.load(input);
+            log.info("Propriedades da aplicação carregadas com sucesso");
+        } catch (IOException e) {
+            log.error("Erro ao carregar propriedades da aplicação", e);
+            throw new DatabaseConfigException("Erro ao carregar as propriedades da aplicação", e);
+        }
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key, props.getProperty(key));
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,147 @@
+package com.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class BoundedExecutor implements Executor {
+
+    private static final ThreadLocal<Boolean> SATURADO = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private static final int REJEICAO_THREADS = 2;
+    private static final int REJEICAO_FILA = 64;
+
+    private final ExecutorService delegate;
+    private final Semaphore concurrency;
+    private final int admissionLimit;
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ThreadPoolExecutor rejeicoes = new ThreadPoolExecutor(REJEICAO_THREADS, REJEICAO_THREADS,
+            60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(REJEICAO_FILA), daemonThreads("http-rejeicao"));
+
+    private BoundedExecutor(ExecutorService delegate, Semaphore concurrency, int admissionLimit) {
+        this.delegate = delegate;
+        this.concurrency = concurrency;
+        this.admissionLimit = admissionLimit;
+        rejeicoes.allowCoreThreadTimeOut(true);
+    }
+
+    public static BoundedExecutor forMode(ExecutionMode mode, int maxConcurrent, int queueLimit) {
+        int admissionLimit = maxConcurrent + queueLimit;
+        switch (mode) {
+            case VIRTUAL:
+                ExecutorService virtual = newVirtualThreadExecutor();
+                if (virtual != null) {
+                    log.info("Executor HTTP em threads virtuais (concorrência={}, fila={})", maxConcurrent, queueLimit);
+                    return new BoundedExecutor(virtual, new Semaphore(maxConcurrent), admissionLimit);
+                }
+                log.warn("Threads virtuais indisponíveis nesta JVM, usando pool de threads de plataforma");
+                return forMode(ExecutionMode.PLATFORM, maxConcurrent, queueLimit);
+            case PLATFORM:
+                log.info("Executor HTTP em pool de plataforma (threads={}, fila={})", maxConcurrent, queueLimit);
+                ThreadPoolExecutor platform = new ThreadPoolExecutor(maxConcurrent, maxConcurrent,
+                        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), daemonThreads("http-worker"));
+                platform.allowCoreThreadTimeOut(true);
+                return new BoundedExecutor(platform, null, admissionLimit);
+            case SINGLE:
+            default:
+                log.info("Executor HTTP no modo legado de thread única");
+                return null;
+        }
+    }
+
+    public static boolean isSaturado() {
+        return SATURADO.get();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (admitted.incrementAndGet() > admissionLimit) {
+            admitted.decrementAndGet();
+            rejected.increment();
+            // O dispatcher não faz I/O com o cliente: o 503 sai de um pool pequeno e limitado. Se
+            // até ele estiver cheio (clientes lentos segurando as threads), a exceção faz o
+            // HttpServer fechar a conexão na hora, ainda no dispatcher
+            try {
+                rejeicoes.execute(() -> runSaturado(task));
+            } catch (RejectedExecutionException e) {
+                dropped.increment();
+                throw e;
+            }
+            return;
+        }
+        delegate.execute(() -> runAdmitted(task));
+    }
+
+    public int getInFlight() {
+        return admitted.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+        rejeicoes.shutdown();
+    }
+
+    private void runAdmitted(Runnable task) {
+        try {
+            if (concurrency != null) {
+                concurrency.acquireUninterruptibly();
+            }
+            try {
+                task.run();
+            } finally {
+                if (concurrency != null) {
+                    concurrency.release();
+                }
+            }
+        } finally {
+            admitted.decrementAndGet();
+        }
+    }
+
+    private static void runSaturado(Runnable task) {
+        SATURADO.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            SATURADO.set(Boolean.FALSE);
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.config;
+
+import com.exception.DatabaseConfigException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+@Slf4j
+public class DatabaseMigrator {
+
+    private static final String PASTA_MIGRACOES = "db/migration/";
+    private static final List<String> MIGRACOES = List.of(
+            "V1__outbox_eventos.sql",
+            "V2__versao_clientes.sql",
+            "V3__indices_busca_clientes.sql"
+    );
+    private static final long LOCK_MIGRACOES = 7_031_994L;
+
+    private DatabaseMigrator() {
+    }
+
+    public static void migrate() {
+        try (Connection connection = PostgresConfig.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_xact_lock(" + LOCK_MIGRACOES + ")");
+                statement.execute("CREATE TABLE IF NOT EXISTS schema_migracoes (" +
+                        "versao VARCHAR(200) PRIMARY KEY, " +
+                        "aplicada_em TIMESTAMPTZ NOT NULL DEFAULT now())");
+            }
+
+            for (String migracao : MIGRACOES) {
+                if (!foiAplicada(connection, migracao)) {
+                    aplicar(connection, migracao);
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            log.error("Erro ao aplicar migrações do banco", e);
+            throw new DatabaseConfigException("Erro ao aplicar migrações do banco: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean foiAplicada(Connection connection, String migracao) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT 1 FROM schema_migracoes WHERE versao = ?")) {
+            preparedStatement.setString(1, migracao);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void aplicar(Connection connection, String migracao) throws SQLException {
+        log.info("Aplicando migração {}", migracao);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(carregarScript(migracao));
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "INSERT INTO schema_migracoes (versao) VALUES (?)")) {
+            preparedStatement.setString(1, migracao);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private static String carregarScript(String migracao) {
+        try (InputStream input = DatabaseMigrator.class.getClassLoader()
+                .getResourceAsStream(PASTA_MIGRACOES + migracao)) {
+            if (input == null) {
+                throw new DatabaseConfigException("Migração não encontrada: " + migracao);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new DatabaseConfigException("Erro ao ler migração " + migracao, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.config;
+
+public enum ExecutionMode {
+    VIRTUAL,
+    PLATFORM,
+    SINGLE;
+
+    public static ExecutionMode from(String value) {
+        try {
+            return ExecutionMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo de execução inválido: " + value, e);
+        }
+    }
+}
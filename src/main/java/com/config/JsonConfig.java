@@ -0,0 +1,19 @@
+package com.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * ObjectMapper único da aplicação. É thread-safe depois de configurado, e compartilhá-lo
+ * mantém um só cache de serializadores em vez de um por handler/publisher.
+ */
+public final class JsonConfig {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private JsonConfig() {
+    }
+
+    public static ObjectMapper getObjectMapper() {
+        return OBJECT_MAPPER;
+    }
+}
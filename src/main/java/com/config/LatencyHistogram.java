@@ -0,0 +1,99 @@
+package com.config;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+
+    // Limites superiores dos buckets em nanossegundos (50 µs a 10 s)
+    static final long[] LIMITES_NANOS = {
+            50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+
+    private static final String[] LE = new String[LIMITES_NANOS.length];
+
+    static {
+        for (int i = 0; i < LIMITES_NANOS.length; i++) {
+            LE[i] = BigDecimal.valueOf(LIMITES_NANOS[i], 9).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[LIMITES_NANOS.length + 1];
+    private final LongAdder somaNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int i = 0;
+        while (i < LIMITES_NANOS.length && nanos > LIMITES_NANOS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        somaNanos.add(nanos);
+    }
+
+    public void recordSince(long inicioNanos) {
+        record(System.nanoTime() - inicioNanos);
+    }
+
+    public <T, E extends Exception> T medir(Medicao<T, E> operacao) throws E {
+        long inicio = System.nanoTime();
+        try {
+            return operacao.executar();
+        } finally {
+            recordSince(inicio);
+        }
+    }
+
+    public <E extends Exception> void medirExecucao(Execucao<E> operacao) throws E {
+        long inicio = System.nanoTime();
+        try {
+            operacao.executar();
+        } finally {
+            recordSince(inicio);
+        }
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (LongAdder bucket : buckets) {
+            total += bucket.sum();
+        }
+        return total;
+    }
+
+    void escrever(StringBuilder sb, String nome, String labels) {
+        String prefixo = labels.isEmpty() ? "" : labels + ",";
+        long acumulado = 0;
+        for (int i = 0; i < LIMITES_NANOS.length; i++) {
+            acumulado += buckets[i].sum();
+            sb.append(nome).append("_bucket{").append(prefixo).append("le=\"")
+                    .append(LE[i]).append("\"} ").append(acumulado).append('\n');
+        }
+        acumulado += buckets[LIMITES_NANOS.length].sum();
+        sb.append(nome).append("_bucket{").append(prefixo).append("le=\"+Inf\"} ").append(acumulado).append('\n');
+        sb.append(nome).append("_sum").append(chaves(labels)).append(' ').append(somaNanos.sum() / 1e9).append('\n');
+        sb.append(nome).append("_count").append(chaves(labels)).append(' ').append(acumulado).append('\n');
+    }
+
+    private static String chaves(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    @FunctionalInterface
+    public interface Medicao<T, E extends Exception> {
+        T executar() throws E;
+    }
+
+    @FunctionalInterface
+    public interface Execucao<E extends Exception> {
+        void executar() throws E;
+    }
+}
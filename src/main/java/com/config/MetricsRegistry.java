@@ -0,0 +1,116 @@
+package com.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registro de métricas no formato de exposição de texto do Prometheus.
+ *
+ * <p>Métricas são criadas uma vez (normalmente em campos estáticos) e depois atualizadas
+ * apenas com {@link LongAdder}, sem locks nem alocação no caminho da requisição.</p>
+ */
+public final class MetricsRegistry {
+
+    private static final Map<String, Familia> FAMILIAS = new ConcurrentSkipListMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static LatencyHistogram histogram(String nome, String ajuda, String... labels) {
+        return (LatencyHistogram) familia(nome, ajuda, "histogram")
+                .amostras.computeIfAbsent(formatarLabels(labels), l -> new LatencyHistogram());
+    }
+
+    public static LongAdder counter(String nome, String ajuda, String... labels) {
+        return (LongAdder) familia(nome, ajuda, "counter")
+                .amostras.computeIfAbsent(formatarLabels(labels), l -> new LongAdder());
+    }
+
+    public static void gauge(String nome, String ajuda, DoubleSupplier valor, String... labels) {
+        familia(nome, ajuda, "gauge").amostras.put(formatarLabels(labels), valor);
+    }
+
+    public static LatencyHistogram repositorio(String repositorio, String metodo) {
+        return histogram("db_operation_duration_seconds", "Latência das operações dos repositórios",
+                "repository", repositorio, "method", metodo);
+    }
+
+    public static String exportar() {
+        StringBuilder sb = new StringBuilder(16 * 1024);
+        for (Map.Entry<String, Familia> entrada : FAMILIAS.entrySet()) {
+            String nome = entrada.getKey();
+            Familia familia = entrada.getValue();
+            sb.append("# HELP ").append(nome).append(' ').append(familia.ajuda).append('\n');
+            sb.append("# TYPE ").append(nome).append(' ').append(familia.tipo).append('\n');
+            for (Map.Entry<String, Object> amostra : new ConcurrentSkipListMap<>(familia.amostras).entrySet()) {
+                escreverAmostra(sb, nome, amostra.getKey(), amostra.getValue());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void escreverAmostra(StringBuilder sb, String nome, String labels, Object valor) {
+        if (valor instanceof LatencyHistogram histogram) {
+            histogram.escrever(sb, nome, labels);
+            return;
+        }
+        sb.append(nome);
+        if (!labels.isEmpty()) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ');
+        if (valor instanceof LongAdder contador) {
+            sb.append(contador.sum());
+        } else {
+            double atual;
+            try {
+                atual = ((DoubleSupplier) valor).getAsDouble();
+            } catch (RuntimeException e) {
+                atual = Double.NaN;
+            }
+            sb.append(atual);
+        }
+        sb.append('\n');
+    }
+
+    private static Familia familia(String nome, String ajuda, String tipo) {
+        Familia familia = FAMILIAS.computeIfAbsent(nome, n -> new Familia(ajuda, tipo));
+        if (!familia.tipo.equals(tipo)) {
+            throw new IllegalArgumentException("Métrica " + nome + " já registrada como " + familia.tipo);
+        }
+        return familia;
+    }
+
+    private static String formatarLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels devem ser informados em pares nome/valor");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escapar(labels[i + 1])).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escapar(String valor) {
+        return valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class Familia {
+
+        private final String ajuda;
+        private final String tipo;
+        private final Map<String, Object> amostras = new ConcurrentHashMap<>();
+
+        private Familia(String ajuda, String tipo) {
+            this.ajuda = ajuda;
+            this.tipo = tipo;
+        }
+    }
+}
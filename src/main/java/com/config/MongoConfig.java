@@ -1,6 +1,8 @@
 package com.config;
 
 import com.exception.DatabaseConfigException;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
@@ -10,6 +12,7 @@ import org.bson.Document;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class MongoConfig {
@@ -17,6 +20,7 @@ public class MongoConfig {
     private static Properties props;
     private static MongoClient mongoClient;
     private static MongoDatabase database;
+    private static final MongoPoolMetrics poolMetrics = new MongoPoolMetrics();
 
     private MongoConfig() {
     }
@@ -46,10 +50,24 @@ public class MongoConfig {
             String mongoUri = props.getProperty("mongo.uri");
             String mongoDatabase = props.getProperty("mongo.database");
 
-            mongoClient = MongoClients.create(mongoUri);
+            MongoClientSettings settings = MongoClientSettings.builder()
+                    .applyConnectionString(new ConnectionString(mongoUri))
+                    .applyToConnectionPoolSettings(pool -> pool
+                            .maxSize(intProperty("mongo.pool.maxSize", 100))
+                            .minSize(intProperty("mongo.pool.minSize", 0))
+                            .maxWaitTime(longProperty("mongo.pool.maxWaitTimeMs", 2_000L), TimeUnit.MILLISECONDS)
+                            .maxConnectionIdleTime(longProperty("mongo.pool.maxIdleTimeMs", 0L), TimeUnit.MILLISECONDS)
+                            .addConnectionPoolListener(poolMetrics))
+                    .applyToServerSettings(server -> server
+                            .heartbeatFrequency(longProperty("mongo.heartbeatFrequencyMs", 10_000L), TimeUnit.MILLISECONDS))
+                    .applyToClusterSettings(cluster -> cluster
+                            .serverSelectionTimeout(longProperty("mongo.serverSelectionTimeoutMs", 5_000L), TimeUnit.MILLISECONDS))
+                    .build();
+
+            mongoClient = MongoClients.create(settings);
             database = mongoClient.getDatabase(mongoDatabase);
 
-            database.runCommand(new org.bson.Document("ping", 1));
+            database.runCommand(new Document("ping", 1));
             log.info("Conexão com MongoDB estabelecida com sucesso");
         } catch (Exception e) {
             log.error("Erro ao conectar com MongoDB", e);
@@ -57,16 +75,22 @@ public class MongoConfig {
         }
     }
 
+    private static int intProperty(String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long longProperty(String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+    }
+
     public static MongoDatabase getDatabase() {
-        try {
-            database.runCommand(new Document("ping", 1));
-            log.debug("Retornando conexão ativa com MongoDB");
-            return database;
-        } catch (Exception e) {
-            log.warn("Conexão MongoDB perdida, reconectando...");
-            initializeConnection();
-            return database;
-        }
+        return database;
+    }
+
+    public static MongoPoolMetrics.MongoPoolStats getPoolStats() {
+        return poolMetrics.getStats();
     }
 
     public static void closeConnection() {
@@ -0,0 +1,98 @@
+package com.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClearedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class MongoPoolMetrics implements ConnectionPoolListener {
+
+    private final AtomicInteger checkedOut = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder checkOutCount = new LongAdder();
+    private final LongAdder checkOutTimeNanos = new LongAdder();
+    private final AtomicLong maxCheckOutTimeNanos = new AtomicLong();
+    private final LongAdder checkOutFailures = new LongAdder();
+    private final LongAdder poolCleared = new LongAdder();
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waiting.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waiting.decrementAndGet();
+        checkedOut.incrementAndGet();
+        long nanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        checkOutCount.increment();
+        checkOutTimeNanos.add(nanos);
+        maxCheckOutTimeNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waiting.decrementAndGet();
+        checkOutFailures.increment();
+        log.warn("Falha ao obter conexão do pool do MongoDB: {}", event.getReason());
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        checkedOut.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        open.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        open.decrementAndGet();
+    }
+
+    @Override
+    public void connectionPoolCleared(ConnectionPoolClearedEvent event) {
+        poolCleared.increment();
+        log.warn("Pool de conexões do MongoDB limpo para {}", event.getServerId().getAddress());
+    }
+
+    public MongoPoolStats getStats() {
+        long count = checkOutCount.sum();
+        return new MongoPoolStats(
+                checkedOut.get(),
+                open.get(),
+                Math.max(0, waiting.get()),
+                count,
+                count == 0 ? 0 : checkOutTimeNanos.sum() / count / 1_000,
+                maxCheckOutTimeNanos.get() / 1_000,
+                checkOutFailures.sum(),
+                poolCleared.sum()
+        );
+    }
+
+    public record MongoPoolStats(
+            int checkedOut,
+            int open,
+            int waiting,
+            long checkOutCount,
+            long avgCheckOutMicros,
+            long maxCheckOutMicros,
+            long checkOutFailures,
+            long poolCleared
+    ) {
+    }
+}
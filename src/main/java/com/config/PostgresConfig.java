@@ -6,7 +6,6 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -14,12 +13,14 @@ import java.util.Properties;
 public class PostgresConfig {
 
     private static Properties props;
+    private static ConnectionPool pool;
 
     private PostgresConfig() {
     }
 
     static {
         loadProperties();
+        initializePool();
     }
 
     private static void loadProperties() {
@@ -48,17 +49,48 @@ public class PostgresConfig {
         log.debug("Todas as propriedades obrigatórias estão presentes");
     }
 
+    private static void initializePool() {
+        pool = new ConnectionPool(
+                props.getProperty("db.url"),
+                props.getProperty("db.username"),
+                props.getProperty("db.password"),
+                intProperty("db.pool.minSize", 2),
+                intProperty("db.pool.maxSize", 10),
+                longProperty("db.pool.acquireTimeoutMs", 5_000L),
+                longProperty("db.pool.idleTimeoutMs", 600_000L),
+                longProperty("db.pool.leakDetectionThresholdMs", 0L),
+                longProperty("db.pool.validationIntervalMs", 1_000L),
+                intProperty("db.pool.validationTimeoutSeconds", 2)
+        );
+        log.info("Pool de conexões com PostgreSQL inicializado (max={})", pool.getStats().maxSize());
+    }
+
+    private static int intProperty(String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long longProperty(String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+    }
+
     public static Connection getConnection() throws SQLException {
         try {
-            log.debug("Criando conexão com o banco de dados PostgreSQL");
-            return DriverManager.getConnection(
-                    props.getProperty("db.url"),
-                    props.getProperty("db.username"),
-                    props.getProperty("db.password")
-            );
+            return pool.getConnection();
         } catch (SQLException e) {
             log.error("Erro ao conectar com PostgreSQL: {}", e.getMessage(), e);
             throw new SQLException("Erro ao conectar com PostgreSQL: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    public static void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+}
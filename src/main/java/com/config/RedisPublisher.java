@@ -6,15 +6,26 @@ import lombok.extern.slf4j.Slf4j;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.JedisPubSub;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 @Slf4j
 public class RedisPublisher {
 
     private static final JedisPool jedisPool;
+    private static final String host;
+    private static final int port;
+    private static final List<JedisPubSub> subscriptions = new CopyOnWriteArrayList<>();
+    private static volatile boolean closed;
+    private static final LatencyHistogram LATENCIA_PIPELINE = MetricsRegistry.histogram("redis_publish_duration_seconds",
+            "Latência das publicações no Redis (ida e volta)", "mode", "pipeline");
     private final ObjectMapper objectMapper;
 
     static {
@@ -25,8 +36,8 @@ public class RedisPublisher {
                 props.load(input);
             }
 
-            String host = props.getProperty("redis.host");
-            int port = Integer.parseInt(props.getProperty("redis.port"));
+            host = props.getProperty("redis.host");
+            port = Integer.parseInt(props.getProperty("redis.port"));
 
             JedisPoolConfig poolConfig = new JedisPoolConfig();
             jedisPool = new JedisPool(poolConfig, host, port);
@@ -39,26 +50,77 @@ public class RedisPublisher {
     }
 
     public RedisPublisher() {
-        this.objectMapper = new ObjectMapper();
+        this.objectMapper = JsonConfig.getObjectMapper();
     }
 
-    public void publish(String topic, Object messageObject) {
+    public void publishRawBatch(List<RawMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
         try (Jedis jedis = jedisPool.getResource()) {
-            String messageJson = objectMapper.writeValueAsString(messageObject);
+            Pipeline pipeline = jedis.pipelined();
+            for (RawMessage message : messages) {
+                pipeline.publish(message.topic(), message.payload());
+            }
+            long inicio = System.nanoTime();
+            pipeline.sync();
+            LATENCIA_PIPELINE.recordSince(inicio);
+            log.debug("{} mensagens publicadas no Redis em um pipeline", messages.size());
+        }
+    }
+
+    public <T> void subscribe(String topic, Class<T> messageType, Consumer<T> listener) {
+        JedisPubSub pubSub = new JedisPubSub() {
+            @Override
+            public void onMessage(String channel, String message) {
+                try {
+                    listener.accept(objectMapper.readValue(message, messageType));
+                } catch (Exception e) {
+                    log.error("Falha ao processar mensagem do tópico {}", channel, e);
+                }
+            }
+        };
+        subscriptions.add(pubSub);
 
-            jedis.publish(topic, messageJson);
-            log.info("Mensagem publicada no tópico '{}': {}", topic, messageJson);
+        Thread thread = new Thread(() -> {
+            while (!closed && !Thread.currentThread().isInterrupted()) {
+                try (Jedis jedis = new Jedis(host, port)) {
+                    log.info("Inscrito no tópico '{}' do Redis", topic);
+                    jedis.subscribe(pubSub, topic);
+                } catch (Exception e) {
+                    if (closed) {
+                        break;
+                    }
+                    log.warn("Inscrição no tópico '{}' interrompida, tentando novamente: {}", topic, e.getMessage());
+                    sleepBeforeRetry();
+                }
+            }
+        }, "redis-subscriber-" + topic);
+        thread.setDaemon(true);
+        thread.start();
+    }
 
-        } catch (Exception e) {
-            log.error("Falha ao publicar mensagem no Redis no tópico {}", topic, e);
+    private static void sleepBeforeRetry() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     public static void close() {
+        closed = true;
+        for (JedisPubSub pubSub : subscriptions) {
+            if (pubSub.isSubscribed()) {
+                pubSub.unsubscribe();
+            }
+        }
         if (jedisPool != null) {
             jedisPool.close();
             log.info("Pool de conexões com Redis fechado.");
         }
     }
 
+    public record RawMessage(String topic, String payload) {
+    }
 }
@@ -0,0 +1,9 @@
+package com.dto;
+
+import java.util.List;
+
+public record BuscaPorIdsDTO<T, ID>(
+        List<T> itens,
+        List<ID> naoEncontrados
+) {
+}
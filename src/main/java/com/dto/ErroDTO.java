@@ -0,0 +1,6 @@
+package com.dto;
+
+public record ErroDTO(
+        String error
+) {
+}
@@ -0,0 +1,10 @@
+package com.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// Lido dos eventos de cliente publicados pelo outbox; só o id importa para invalidar o cache
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record InvalidacaoCacheDTO(
+        Long id
+) {
+}
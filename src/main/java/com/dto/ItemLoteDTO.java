@@ -0,0 +1,8 @@
+package com.dto;
+
+public record ItemLoteDTO<ID>(
+        int indice,
+        ID id,
+        String erro
+) {
+}
@@ -0,0 +1,9 @@
+package com.dto;
+
+import java.util.List;
+
+public record PaginaDTO<T>(
+        List<T> itens,
+        String proximoCursor
+) {
+}
@@ -0,0 +1,11 @@
+package com.dto;
+
+import java.math.BigDecimal;
+
+public record ProdutoLoteDTO(
+        String id,
+        String nome,
+        BigDecimal preco,
+        String descricao
+) {
+}
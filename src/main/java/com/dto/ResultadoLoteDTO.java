@@ -0,0 +1,21 @@
+package com.dto;
+
+import java.util.List;
+
+public record ResultadoLoteDTO<ID>(
+        int processados,
+        int sucessos,
+        int falhas,
+        long duracaoMs,
+        double itensPorSegundo,
+        List<ItemLoteDTO<ID>> itens
+) {
+
+    public static <ID> ResultadoLoteDTO<ID> of(int processados, int sucessos, long inicioNanos,
+                                              List<ItemLoteDTO<ID>> itens) {
+        long duracaoNanos = Math.max(1L, System.nanoTime() - inicioNanos);
+        double itensPorSegundo = processados * 1_000_000_000.0 / duracaoNanos;
+        return new ResultadoLoteDTO<>(processados, sucessos, processados - sucessos,
+                duracaoNanos / 1_000_000, Math.round(itensPorSegundo * 10) / 10.0, itens);
+    }
+}
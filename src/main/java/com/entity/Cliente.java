@@ -5,14 +5,11 @@ public record Cliente(
         String nome,
         String email,
         String telefone,
-        String endereco
+        String endereco,
+        Long versao
 ) {
 
     public static Cliente novo(String nome, String email, String telefone, String endereco) {
-        return new Cliente(null, nome, email, telefone, endereco);
-    }
-
-    public Cliente atualizar(String nome, String email, String telefone, String endereco) {
-        return new Cliente(this.id, nome, email, telefone, endereco);
+        return new Cliente(null, nome, email, telefone, endereco, null);
     }
 }
@@ -0,0 +1,8 @@
+package com.entity;
+
+public record EventoOutbox(
+        Long id,
+        String topico,
+        String payload
+) {
+}
@@ -6,14 +6,11 @@ public record Produto(
         String id,
         String nome,
         BigDecimal preco,
-        String descricao
+        String descricao,
+        Long versao
 ) {
 
     public static Produto novo(String nome, BigDecimal preco, String descricao) {
-        return new Produto(null, nome, preco, descricao);
-    }
-
-    public Produto atualizar(String nome, BigDecimal preco, String descricao) {
-        return new Produto(this.id, nome, preco, descricao);
+        return new Produto(null, nome, preco, descricao, null);
     }
 }
@@ -0,0 +1,8 @@
+package com.exception;
+
+public class ClienteNaoEncontradoException extends IllegalArgumentException {
+
+    public ClienteNaoEncontradoException(Long id) {
+        super("Cliente não encontrado com ID: " + id);
+    }
+}
@@ -0,0 +1,15 @@
+package com.exception;
+
+public class ConflitoVersaoException extends RuntimeException {
+
+    private final Long versaoAtual;
+
+    public ConflitoVersaoException(String message, Long versaoAtual) {
+        super(message);
+        this.versaoAtual = versaoAtual;
+    }
+
+    public Long getVersaoAtual() {
+        return versaoAtual;
+    }
+}
@@ -0,0 +1,11 @@
+package com.handler;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+@FunctionalInterface
+interface AcaoRota {
+
+    void executar(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException;
+}
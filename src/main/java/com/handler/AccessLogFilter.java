@@ -0,0 +1,96 @@
+package com.handler;
+
+import com.config.AppConfig;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uma linha de log por requisição no logger {@code access}, com amostragem por rota.
+ *
+ * <p>Erros de servidor e requisições lentas são sempre registrados; o restante passa pela taxa
+ * de amostragem da rota (ou pela padrão). A saída assíncrona fica a cargo do logback.xml.</p>
+ */
+public class AccessLogFilter extends Filter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access");
+    private static final String ROTA_DESCONHECIDA = "-";
+
+    private final double amostragemPadrao;
+    private final Map<String, Double> amostragemPorRota;
+    private final long lentoNanos;
+
+    public AccessLogFilter() {
+        this(Double.parseDouble(AppConfig.getString("accesslog.amostragem.padrao", "1.0")),
+                parseAmostragem(AppConfig.getString("accesslog.amostragem.rotas", "")),
+                AppConfig.getLong("accesslog.lentoMs", 500L));
+    }
+
+    public AccessLogFilter(double amostragemPadrao, Map<String, Double> amostragemPorRota, long lentoMs) {
+        this.amostragemPadrao = amostragemPadrao;
+        this.amostragemPorRota = Map.copyOf(amostragemPorRota);
+        this.lentoNanos = TimeUnit.MILLISECONDS.toNanos(lentoMs);
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!ACCESS_LOG.isInfoEnabled()) {
+            chain.doFilter(exchange);
+            return;
+        }
+        long inicio = System.nanoTime();
+        boolean falhou = true;
+        try {
+            chain.doFilter(exchange);
+            falhou = false;
+        } finally {
+            long duracao = System.nanoTime() - inicio;
+            int status = falhou || exchange.getResponseCode() < 0 ? 500 : exchange.getResponseCode();
+            String rota = RotaRequisicao.atual();
+            if (rota == null) {
+                rota = ROTA_DESCONHECIDA;
+            }
+            if (deveRegistrar(rota, status, duracao)) {
+                ACCESS_LOG.info("method={} route={} path={} status={} durationUs={} remote={}",
+                        exchange.getRequestMethod(), rota, exchange.getRequestURI().getRawPath(), status,
+                        TimeUnit.NANOSECONDS.toMicros(duracao), exchange.getRemoteAddress().getAddress().getHostAddress());
+            }
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Registra uma linha de acesso por requisição, com amostragem por rota";
+    }
+
+    private boolean deveRegistrar(String rota, int status, long duracaoNanos) {
+        if (status >= 500 || duracaoNanos >= lentoNanos) {
+            return true;
+        }
+        double taxa = amostragemPorRota.getOrDefault(rota, amostragemPadrao);
+        return taxa >= 1.0 || (taxa > 0.0 && ThreadLocalRandom.current().nextDouble() < taxa);
+    }
+
+    // Formato: /api/clientes/{id}=0.05,/api/produtos/{id}=0.1
+    static Map<String, Double> parseAmostragem(String valor) {
+        Map<String, Double> taxas = new HashMap<>();
+        if (valor == null || valor.isBlank()) {
+            return taxas;
+        }
+        for (String parte : valor.split(",")) {
+            int separador = parte.lastIndexOf('=');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Entrada inválida em accesslog.amostragem.rotas: " + parte);
+            }
+            taxas.put(parte.substring(0, separador).trim(), Double.parseDouble(parte.substring(separador + 1).trim()));
+        }
+        return taxas;
+    }
+}
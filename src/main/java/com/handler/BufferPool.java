@@ -0,0 +1,31 @@
+package com.handler;
+
+import com.config.AppConfig;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Buffers de resposta reaproveitados entre requisições. Com threads virtuais um ThreadLocal
+ * não reaproveita nada (cada requisição tem a sua thread), então o pool é global e limitado.
+ */
+final class BufferPool {
+
+    static final int TAMANHO_BUFFER = AppConfig.getInt("server.resposta.bufferBytes", 16 * 1024);
+    private static final BlockingQueue<byte[]> LIVRES =
+            new ArrayBlockingQueue<>(AppConfig.getInt("server.resposta.buffersNoPool", 256));
+
+    private BufferPool() {
+    }
+
+    static byte[] obter() {
+        byte[] buffer = LIVRES.poll();
+        return buffer != null ? buffer : new byte[TAMANHO_BUFFER];
+    }
+
+    static void devolver(byte[] buffer) {
+        if (buffer != null && buffer.length == TAMANHO_BUFFER) {
+            LIVRES.offer(buffer);
+        }
+    }
+}
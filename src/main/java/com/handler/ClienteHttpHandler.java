@@ -1,8 +1,16 @@
 package com.handler;
 
 import com.dto.AtualizarEmailDTO;
+import com.dto.BuscaPorIdsDTO;
 import com.dto.ClienteDTO;
+import com.dto.ErroDTO;
+import com.dto.PaginaDTO;
+import com.dto.ResultadoLoteDTO;
 import com.entity.Cliente;
+import com.exception.ClienteNaoEncontradoException;
+import com.exception.ConflitoVersaoException;
+import com.exception.EmailDuplicadoException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.service.ClienteService;
 import com.sun.net.httpserver.HttpExchange;
@@ -11,188 +19,254 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
 public class ClienteHttpHandler implements HttpHandler {
 
     private static final String API_CLIENTES_PATH = "/api/clientes";
-    private static final String API_CLIENTES_PREFIX = "/api/clientes/";
-    private static final String HEADER_CONTENT_TYPE = "Content-Type";
-    private static final String CONTENT_TYPE_JSON = "application/json; charset=UTF-8";
-    private static final String METHOD_POST = "POST";
-    private static final String METHOD_GET = "GET";
-    private static final String METHOD_PUT = "PUT";
-    private static final String METHOD_DELETE = "DELETE";
+    private static final String API_CLIENTES_ID_PATH = "/api/clientes/{id}";
+    private static final String API_CLIENTES_EMAIL_PATH = "/api/clientes/{id}/email";
+    private static final String API_CLIENTES_BATCH_PATH = "/api/clientes/batch";
+    private static final String HEADER_ALLOW = "Allow";
+
+    private static final String PARAM_AFTER = "after";
+    private static final String PARAM_LIMIT = "limit";
+    private static final String PARAM_IDS = "ids";
+    private static final String PARAM_EMAIL = "email";
+    private static final String PARAM_NOME = "nome";
+    private static final String PARAM_TELEFONE = "telefone";
 
     private static final String ID_INVALIDO = "ID inválido na requisição: {}";
     private static final String ID_NUMERICO = "ID do cliente deve ser numérico.";
 
     private final ClienteService clienteService;
     private final ObjectMapper objectMapper;
+    private final JsonResponseWriter responseWriter;
+    private final Router<AcaoRota> router;
 
     public ClienteHttpHandler(ClienteService clienteService, ObjectMapper objectMapper) {
         this.clienteService = clienteService;
         this.objectMapper = objectMapper;
+        this.responseWriter = new JsonResponseWriter(objectMapper);
+        this.router = Router.<AcaoRota>builder()
+                .get(API_CLIENTES_PATH, this::handleGetTodosClientes)
+                .post(API_CLIENTES_PATH, this::handlePostCliente)
+                .post(API_CLIENTES_BATCH_PATH, this::handlePostLoteClientes)
+                .get(API_CLIENTES_ID_PATH, this::handleGetClienteById)
+                .put(API_CLIENTES_ID_PATH, this::handlePutCliente)
+                .delete(API_CLIENTES_ID_PATH, this::handleDeleteCliente)
+                .put(API_CLIENTES_EMAIL_PATH, this::handlePutEmailCliente)
+                .build();
     }
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
         String method = exchange.getRequestMethod().toUpperCase();
         String path = exchange.getRequestURI().getPath();
+        Router.Rota<AcaoRota> rota = router.match(method, path);
 
         try {
-            switch (method) {
-                case METHOD_POST:
-                    if (path.equals(API_CLIENTES_PATH)) {
-                        handlePostCliente(exchange);
-                    }
-                    break;
-                case METHOD_GET:
-                    if (path.equals(API_CLIENTES_PATH)) {
-                        handleGetTodosClientes(exchange);
-                    } else if (path.startsWith(API_CLIENTES_PREFIX)) {
-                        handleGetClienteById(exchange);
-                    }
+            switch (rota.resultado()) {
+                case ENCONTRADA:
+                    RotaRequisicao.definir(rota.template());
+                    rota.acao().executar(exchange, rota);
                     break;
-                case METHOD_PUT:
-                    if (path.matches("/api/clientes/\\d+/email")) {
-                        handlePutEmailCliente(exchange);
-                    } else if (path.startsWith(API_CLIENTES_PREFIX)) {
-                        handlePutCliente(exchange);
-                    }
-                    break;
-                case METHOD_DELETE:
-                    if (path.startsWith(API_CLIENTES_PREFIX)) {
-                        handleDeleteCliente(exchange);
-                    }
+                case METODO_NAO_PERMITIDO:
+                    RotaRequisicao.definir(rota.template());
+                    log.debug("Método {} não suportado em {}", method, path);
+                    exchange.getResponseHeaders().set(HEADER_ALLOW, rota.allow());
+                    sendResponse(exchange, 405, createErrorResponse("Método não suportado"));
                     break;
                 default:
-                    log.warn("Método não suportado: {}", method);
-                    sendResponse(exchange, 405, createErrorResponse("Método não suportado"));
+                    log.debug("Rota não encontrada: {} {}", method, path);
+                    sendResponse(exchange, 404, createErrorResponse("Recurso não encontrado"));
             }
+        } catch (ConflitoVersaoException e) {
+            log.debug("Pré-condição falhou em {} {}: {}", method, path, e.getMessage());
+            PreCondicao.marcarVersao(exchange, e.getVersaoAtual());
+            sendResponse(exchange, 412, createErrorResponse(e.getMessage()));
+        } catch (EmailDuplicadoException e) {
+            log.debug("Conflito em {} {}: {}", method, path, e.getMessage());
+            sendResponse(exchange, 409, createErrorResponse(e.getMessage()));
+        } catch (ClienteNaoEncontradoException e) {
+            log.debug("Recurso não encontrado em {} {}: {}", method, path, e.getMessage());
+            sendResponse(exchange, 404, createErrorResponse(e.getMessage()));
         } catch (IllegalArgumentException e) {
-            log.warn("Erro de validação ou recurso não encontrado: {}", e.getMessage());
+            log.debug("Erro de validação: {}", e.getMessage());
             sendResponse(exchange, 400, createErrorResponse(e.getMessage()));
+        } catch (RespostaAbortadaException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erro inesperado ao processar a requisição: {}", e.getMessage(), e);
             sendResponse(exchange, 500, createErrorResponse("Erro interno no servidor"));
         }
     }
 
-    private void handleGetTodosClientes(HttpExchange exchange) throws IOException {
-        log.info("Recebida requisição GET para {} (listar todos)", API_CLIENTES_PATH);
-        List<Cliente> clientes = clienteService.listarTodos();
-        String responseJson = objectMapper.writeValueAsString(clientes);
-        log.info("Retornando {} clientes.", clientes.size());
-        sendResponse(exchange, 200, responseJson);
+    private void handleGetTodosClientes(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        Map<String, String> params = QueryParams.parse(exchange.getRequestURI().getRawQuery());
+        if (params.containsKey(PARAM_IDS)) {
+            handleGetClientesPorIds(exchange, params);
+        } else if (params.containsKey(PARAM_EMAIL) || params.containsKey(PARAM_NOME) || params.containsKey(PARAM_TELEFONE)) {
+            handleBuscaClientes(exchange, params);
+        } else if (params.containsKey(PARAM_AFTER) || params.containsKey(PARAM_LIMIT)) {
+            handleGetPaginaClientes(exchange, params);
+        } else {
+            handleStreamTodosClientes(exchange);
+        }
+    }
+
+    private void handleGetPaginaClientes(HttpExchange exchange, Map<String, String> params) throws IOException {
+        Long after = QueryParams.parseLong(params, PARAM_AFTER);
+        Integer limit = QueryParams.parseInt(params, PARAM_LIMIT);
+        log.debug("Recebida requisição GET para {} (página após {}, limite {})", API_CLIENTES_PATH, after, limit);
+        PaginaDTO<Cliente> pagina = clienteService.listarPagina(after, limit);
+        log.debug("Retornando página com {} clientes.", pagina.itens().size());
+        sendResponse(exchange, 200, pagina);
+    }
+
+    private void handleBuscaClientes(HttpExchange exchange, Map<String, String> params) throws IOException {
+        Long after = QueryParams.parseLong(params, PARAM_AFTER);
+        Integer limit = QueryParams.parseInt(params, PARAM_LIMIT);
+        log.debug("Recebida requisição GET para {} (busca {}, página após {}, limite {})",
+                API_CLIENTES_PATH, params, after, limit);
+        PaginaDTO<Cliente> pagina = clienteService.buscarClientes(params.get(PARAM_EMAIL), params.get(PARAM_NOME),
+                params.get(PARAM_TELEFONE), after, limit);
+        log.debug("Busca retornou {} clientes.", pagina.itens().size());
+        sendResponse(exchange, 200, pagina);
+    }
+
+    private void handleGetClientesPorIds(HttpExchange exchange, Map<String, String> params) throws IOException {
+        List<Long> ids = QueryParams.parseLongList(params, PARAM_IDS);
+        log.debug("Recebida requisição GET para {} ({} ids)", API_CLIENTES_PATH, ids.size());
+        BuscaPorIdsDTO<Cliente, Long> resultado = clienteService.buscarPorIds(ids);
+        log.debug("Retornando {} clientes, {} não encontrados.", resultado.itens().size(), resultado.naoEncontrados().size());
+        sendResponse(exchange, 200, resultado);
     }
 
-    private void handlePostCliente(HttpExchange exchange) throws IOException {
-        log.info("Recebida requisição POST para {}", API_CLIENTES_PATH);
+    private void handleStreamTodosClientes(HttpExchange exchange) throws IOException {
+        log.debug("Recebida requisição GET para {} (listar todos em streaming)", API_CLIENTES_PATH);
+        JsonArrayStream<Cliente> stream = new JsonArrayStream<>(exchange, objectMapper);
+        try {
+            clienteService.percorrerTodos(stream);
+            stream.complete();
+            log.debug("Retornados {} clientes.", stream.getCount());
+        } catch (RuntimeException e) {
+            if (!stream.isStarted()) {
+                throw e;
+            }
+            log.error("Falha ao transmitir clientes após {} registros: {}", stream.getCount(), e.getMessage(), e);
+            stream.abort(e);
+        }
+    }
+
+    private void handlePostCliente(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        log.debug("Recebida requisição POST para {}", API_CLIENTES_PATH);
         InputStream requestBody = exchange.getRequestBody();
         ClienteDTO dto = objectMapper.readValue(requestBody, ClienteDTO.class);
         Cliente novoCliente = clienteService.criarCliente(dto.nome(), dto.email(), dto.telefone(), dto.endereco());
-        String responseJson = objectMapper.writeValueAsString(novoCliente);
-        log.info("Cliente criado com sucesso. ID: {}", novoCliente.id());
-        sendResponse(exchange, 201, responseJson);
+        log.debug("Cliente criado com sucesso. ID: {}", novoCliente.id());
+        PreCondicao.marcarVersao(exchange, novoCliente.versao());
+        sendResponse(exchange, 201, novoCliente);
+    }
+
+    private void handlePostLoteClientes(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        log.debug("Recebida requisição POST para {}", API_CLIENTES_BATCH_PATH);
+        try {
+            JsonArrayReader<ClienteDTO> itens = new JsonArrayReader<>(exchange.getRequestBody(), objectMapper, ClienteDTO.class);
+            ResultadoLoteDTO<Long> resultado = clienteService.criarClientesEmLote(itens);
+            log.info("Lote de clientes processado: {} criados, {} falhas.", resultado.sucessos(), resultado.falhas());
+            sendResponse(exchange, 200, resultado);
+        } catch (UncheckedIOException | JsonProcessingException e) {
+            log.warn("Corpo do lote de clientes inválido: {}", e.getMessage());
+            sendResponse(exchange, 400, createErrorResponse("JSON inválido no corpo da requisição"));
+        }
     }
 
-    private void handleGetClienteById(HttpExchange exchange) throws IOException {
+    private void handleGetClienteById(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
         try {
-            Long id = extractIdFromPath(exchange);
-            log.info("Recebida requisição GET para {}/{}", API_CLIENTES_PATH, id);
+            Long id = extractIdFromPath(exchange, rota);
+            log.debug("Recebida requisição GET para {}/{}", API_CLIENTES_PATH, id);
             Optional<Cliente> clienteOpt = clienteService.buscarPorId(id);
             if (clienteOpt.isPresent()) {
-                log.info("Cliente com ID {} encontrado.", id);
-                String responseJson = objectMapper.writeValueAsString(clienteOpt.get());
-                sendResponse(exchange, 200, responseJson);
+                log.debug("Cliente com ID {} encontrado.", id);
+                PreCondicao.marcarVersao(exchange, clienteOpt.get().versao());
+                sendResponse(exchange, 200, clienteOpt.get());
             } else {
-                log.warn("Cliente com ID {} não foi encontrado.", id);
+                log.debug("Cliente com ID {} não foi encontrado.", id);
                 sendResponse(exchange, 404, createErrorResponse("Cliente com ID " + id + " não encontrado"));
             }
         } catch (NumberFormatException e) {
-            log.warn(ID_INVALIDO, exchange.getRequestURI().getPath());
+            log.debug(ID_INVALIDO, exchange.getRequestURI().getPath());
             sendResponse(exchange, 400, createErrorResponse(ID_NUMERICO));
         }
     }
 
-    private void handlePutCliente(HttpExchange exchange) throws IOException {
+    private void handlePutCliente(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
         try {
-            Long id = extractIdFromPath(exchange);
-            log.info("Recebida requisição PUT para {}/{}", API_CLIENTES_PATH, id);
+            Long id = extractIdFromPath(exchange, rota);
+            log.debug("Recebida requisição PUT para {}/{}", API_CLIENTES_PATH, id);
             InputStream requestBody = exchange.getRequestBody();
             ClienteDTO dto = objectMapper.readValue(requestBody, ClienteDTO.class);
-            Cliente clienteAtualizado = clienteService.atualizarCliente(id, dto.nome(), dto.email(), dto.telefone(), dto.endereco());
-            String responseJson = objectMapper.writeValueAsString(clienteAtualizado);
-            log.info("Cliente com ID {} atualizado com sucesso.", id);
-            sendResponse(exchange, 200, responseJson);
+            Cliente clienteAtualizado = clienteService.atualizarCliente(id, dto.nome(), dto.email(), dto.telefone(),
+                    dto.endereco(), PreCondicao.versaoEsperada(exchange));
+            log.debug("Cliente com ID {} atualizado com sucesso.", id);
+            PreCondicao.marcarVersao(exchange, clienteAtualizado.versao());
+            sendResponse(exchange, 200, clienteAtualizado);
         } catch (NumberFormatException e) {
-            log.warn(ID_INVALIDO, exchange.getRequestURI().getPath());
+            log.debug(ID_INVALIDO, exchange.getRequestURI().getPath());
             sendResponse(exchange, 400, createErrorResponse(ID_NUMERICO));
         }
     }
 
-    private void handleDeleteCliente(HttpExchange exchange) throws IOException {
+    private void handleDeleteCliente(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
         try {
-            Long id = extractIdFromPath(exchange);
-            log.info("Recebida requisição DELETE para {}/{}", API_CLIENTES_PATH, id);
+            Long id = extractIdFromPath(exchange, rota);
+            log.debug("Recebida requisição DELETE para {}/{}", API_CLIENTES_PATH, id);
             boolean deletado = clienteService.deletarCliente(id);
             if (deletado) {
-                log.info("Cliente com ID {} deletado com sucesso.", id);
-                sendResponse(exchange, 204, "");
+                log.debug("Cliente com ID {} deletado com sucesso.", id);
+                sendResponse(exchange, 204, null);
             } else {
-                log.warn("Falha ao deletar cliente com ID {}. Não foi encontrado.", id);
+                log.debug("Falha ao deletar cliente com ID {}. Não foi encontrado.", id);
                 sendResponse(exchange, 404, createErrorResponse("Cliente com ID " + id + " não encontrado para deleção"));
             }
         } catch (NumberFormatException e) {
-            log.warn(ID_INVALIDO, exchange.getRequestURI().getPath());
+            log.debug(ID_INVALIDO, exchange.getRequestURI().getPath());
             sendResponse(exchange, 400, createErrorResponse(ID_NUMERICO));
         }
     }
 
-    private void handlePutEmailCliente(HttpExchange exchange) throws IOException {
+    private void handlePutEmailCliente(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
         try {
-            String path = exchange.getRequestURI().getPath();
-            String idStr = path.substring(API_CLIENTES_PREFIX.length()).replace("/email", "");
-            Long id = Long.valueOf(idStr);
+            Long id = extractIdFromPath(exchange, rota);
 
-            log.info("Recebida requisição PUT para /api/clientes/{}/email", id);
+            log.debug("Recebida requisição PUT para /api/clientes/{}/email", id);
 
             InputStream requestBody = exchange.getRequestBody();
             AtualizarEmailDTO dto = objectMapper.readValue(requestBody, AtualizarEmailDTO.class);
 
             clienteService.atualizarEmailCliente(id, dto.novoEmail());
 
-            sendResponse(exchange, 204, "");
+            sendResponse(exchange, 204, null);
         } catch (NumberFormatException e) {
-            log.warn(ID_INVALIDO, exchange.getRequestURI().getPath());
+            log.debug(ID_INVALIDO, exchange.getRequestURI().getPath());
             sendResponse(exchange, 400, createErrorResponse(ID_NUMERICO));
         }
     }
 
-    private void sendResponse(HttpExchange exchange, int statusCode, String responseBody) throws IOException {
-        if (statusCode == 204) {
-            exchange.sendResponseHeaders(statusCode, -1);
-        } else {
-            exchange.getResponseHeaders().set(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON);
-            byte[] responseBytes = responseBody.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(statusCode, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBytes);
-            }
-        }
+    private void sendResponse(HttpExchange exchange, int statusCode, Object responseBody) throws IOException {
+        responseWriter.enviar(exchange, statusCode, statusCode == 204 ? null : responseBody);
     }
 
-    private Long extractIdFromPath(HttpExchange exchange) {
-        String idStr = exchange.getRequestURI().getPath().substring(API_CLIENTES_PREFIX.length());
-        return Long.valueOf(idStr);
+    private Long extractIdFromPath(HttpExchange exchange, Router.Rota<AcaoRota> rota) {
+        return rota.longVar(exchange.getRequestURI().getPath(), 0);
     }
 
-    private String createErrorResponse(String message) {
-        return "{\"error\":\"" + message + "\"}";
+    private ErroDTO createErrorResponse(String message) {
+        return new ErroDTO(message);
     }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.handler;
+
+import com.config.AppConfig;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negociação de Content-Encoding a partir do Accept-Encoding da requisição.
+ */
+enum Compressao {
+    NENHUMA(null),
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    static final boolean HABILITADA = AppConfig.getBoolean("server.compressao.habilitada", true);
+    static final int MIN_BYTES = AppConfig.getInt("server.compressao.minBytes", 1024);
+    private static final int NIVEL = AppConfig.getInt("server.compressao.nivel", Deflater.BEST_SPEED);
+    private static final int BUFFER_BYTES = 8 * 1024;
+
+    private final String encoding;
+
+    Compressao(String encoding) {
+        this.encoding = encoding;
+    }
+
+    String encoding() {
+        return encoding;
+    }
+
+    static Compressao negociar(HttpExchange exchange) {
+        if (!HABILITADA) {
+            return NENHUMA;
+        }
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept == null || accept.isEmpty()) {
+            return NENHUMA;
+        }
+        boolean deflate = false;
+        for (String parte : accept.split(",")) {
+            String[] tokens = parte.split(";");
+            String nome = tokens[0].trim();
+            if (recusado(tokens)) {
+                continue;
+            }
+            if ("gzip".equalsIgnoreCase(nome) || "*".equals(nome)) {
+                return GZIP;
+            }
+            if ("deflate".equalsIgnoreCase(nome)) {
+                deflate = true;
+            }
+        }
+        return deflate ? DEFLATE : NENHUMA;
+    }
+
+    // Deve ser chamado antes de sendResponseHeaders
+    void marcar(HttpExchange exchange) {
+        if (this != NENHUMA) {
+            exchange.getResponseHeaders().set("Content-Encoding", encoding);
+        }
+    }
+
+    // O cabeçalho gzip é escrito já na construção, então só depois de enviar os headers
+    OutputStream envolver(OutputStream destino) throws IOException {
+        if (this == NENHUMA) {
+            return destino;
+        }
+        if (this == GZIP) {
+            return new GZIPOutputStream(destino, BUFFER_BYTES) {
+                {
+                    def.setLevel(NIVEL);
+                }
+            };
+        }
+        return new DeflaterOutputStream(destino, new Deflater(NIVEL), BUFFER_BYTES) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    def.end();
+                }
+            }
+        };
+    }
+
+    static void marcarVary(HttpExchange exchange) {
+        if (HABILITADA) {
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        }
+    }
+
+    private static boolean recusado(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parametro = tokens[i].trim();
+            if (parametro.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parametro.substring(2)) <= 0.0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
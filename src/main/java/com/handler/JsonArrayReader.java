@@ -0,0 +1,66 @@
+package com.handler;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+final class JsonArrayReader<T> implements Iterator<T> {
+
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private JsonToken next;
+
+    JsonArrayReader(InputStream input, ObjectMapper objectMapper, Class<T> type) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(input);
+        this.objectMapper = objectMapper;
+        this.type = type;
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("O corpo da requisição deve ser um array JSON");
+        }
+        advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("JSON malformado no corpo da requisição", e);
+        }
+        advance();
+        try {
+            return objectMapper.treeToValue(node, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Item inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private void advance() {
+        try {
+            next = parser.nextToken();
+        } catch (IOException e) {
+            throw new UncheckedIOException("JSON malformado no corpo da requisição", e);
+        }
+        if (next == null) {
+            throw new UncheckedIOException(new IOException("Array JSON não foi finalizado"));
+        }
+    }
+}
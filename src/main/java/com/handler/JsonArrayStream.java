@@ -0,0 +1,69 @@
+package com.handler;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+final class JsonArrayStream<T> implements Consumer<T> {
+
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+    private static final String CONTENT_TYPE_JSON = "application/json; charset=UTF-8";
+
+    private final HttpExchange exchange;
+    private final ObjectMapper objectMapper;
+    private JsonGenerator generator;
+    private int count;
+
+    JsonArrayStream(HttpExchange exchange, ObjectMapper objectMapper) {
+        this.exchange = exchange;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void accept(T item) {
+        try {
+            start();
+            generator.writeObject(item);
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void complete() throws IOException {
+        start();
+        generator.writeEndArray();
+        generator.close();
+        exchange.close();
+    }
+
+    // Não fecha o exchange nem o generator: isso escreveria o chunk final e o cliente receberia um 200 "completo"
+    void abort(RuntimeException causa) throws IOException {
+        throw new RespostaAbortadaException("Transmissão interrompida após " + count + " itens", causa);
+    }
+
+    boolean isStarted() {
+        return generator != null;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    private void start() throws IOException {
+        if (generator != null) {
+            return;
+        }
+        exchange.getResponseHeaders().set(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON);
+        Compressao.marcarVary(exchange);
+        Compressao compressao = Compressao.negociar(exchange);
+        compressao.marcar(exchange);
+        exchange.sendResponseHeaders(200, 0);
+        generator = objectMapper.getFactory().createGenerator(compressao.envolver(exchange.getResponseBody()));
+        generator.writeStartArray();
+    }
+}
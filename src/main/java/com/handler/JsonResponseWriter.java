@@ -0,0 +1,259 @@
+package com.handler;
+
+import com.config.AppConfig;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/**
+ * Serializa o corpo JSON direto no stream da resposta, sem passar por String nem byte[]
+ * intermediários.
+ *
+ * <p>A saída vai primeiro para buffers do {@link BufferPool}, encadeados até
+ * {@code server.resposta.maxBufferBytes}. Se o JSON couber neles, a resposta de um GET recebe um
+ * ETag forte calculado sobre os bytes (e vira 304 quando bate com o If-None-Match) e, acima de
+ * {@code server.compressao.minBytes}, é comprimida conforme o Accept-Encoding. Se não couber, os
+ * headers são enviados com transferência chunked, sem ETag calculado, e o restante é escrito (comprimido,
+ * se negociado) direto no socket. Uma falha de serialização antes de qualquer byte enviado
+ * propaga a exceção com a resposta intacta, para o handler responder com erro.</p>
+ */
+final class JsonResponseWriter {
+
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+    private static final String CONTENT_TYPE_JSON = "application/json; charset=UTF-8";
+    private static final int MAX_SEGMENTOS = Math.max(1,
+            AppConfig.getInt("server.resposta.maxBufferBytes", 1024 * 1024) / BufferPool.TAMANHO_BUFFER);
+
+    private final ObjectWriter writer;
+
+    JsonResponseWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    void enviar(HttpExchange exchange, int statusCode, Object corpo) throws IOException {
+        if (corpo == null || "HEAD".equals(exchange.getRequestMethod())) {
+            enviarSemCorpo(exchange, statusCode);
+            return;
+        }
+        exchange.getResponseHeaders().set(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON);
+        Compressao.marcarVary(exchange);
+        boolean condicional = statusCode == 200 && "GET".equals(exchange.getRequestMethod());
+        RespostaOutputStream saida = new RespostaOutputStream(exchange, statusCode, condicional);
+        try {
+            writer.writeValue(saida, corpo);
+        } catch (IOException | RuntimeException e) {
+            if (saida.descartar()) {
+                throw e;
+            }
+            // Parte da resposta já foi enviada: só resta encerrar a conexão
+            exchange.close();
+            throw e;
+        }
+        saida.close();
+    }
+
+    // Sem corpo o HttpServer encerra a troca já no sendResponseHeaders e exchange.close() não
+    // drena mais a requisição; corpo de requisição não consumido faz o servidor fechar a conexão
+    private static void enviarSemCorpo(HttpExchange exchange, int statusCode) throws IOException {
+        exchange.getRequestBody().close();
+        exchange.sendResponseHeaders(statusCode, -1);
+        exchange.close();
+    }
+
+    // ETag forte: CRC32C e CRC32 (polinômios distintos, ambos intrínsecos na JVM) mais o tamanho
+    private static String calcularEtag(byte[][] segmentos, int quantidade, int tamanhoUltimo, long total) {
+        CRC32C crc32c = new CRC32C();
+        CRC32 crc32 = new CRC32();
+        for (int i = 0; i < quantidade; i++) {
+            int tamanho = i == quantidade - 1 ? tamanhoUltimo : segmentos[i].length;
+            crc32c.update(segmentos[i], 0, tamanho);
+            crc32.update(segmentos[i], 0, tamanho);
+        }
+        return "\"" + Long.toHexString(crc32c.getValue() << 32 | crc32.getValue())
+                + "-" + Long.toHexString(total) + "\"";
+    }
+
+    // If-None-Match usa comparação fraca: ignora W/ e o sufixo de codificação do ETag
+    static boolean etagCombina(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String semAspas = etag.substring(0, etag.length() - 1);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if ("*".equals(valor)) {
+                return true;
+            }
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+            for (Compressao compressao : Compressao.values()) {
+                if (compressao != Compressao.NENHUMA && valor.equals(semAspas + "-" + compressao.encoding() + "\"")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String etagCodificado(String etag, Compressao compressao) {
+        if (compressao == Compressao.NENHUMA) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + compressao.encoding() + "\"";
+    }
+
+    private static final class RespostaOutputStream extends OutputStream {
+
+        private final HttpExchange exchange;
+        private final int statusCode;
+        private final boolean condicional;
+        private final byte[][] segmentos = new byte[MAX_SEGMENTOS][];
+        private int quantidade;
+        private byte[] buffer = BufferPool.obter();
+        private int tamanho;
+        private long total;
+        private OutputStream corpo;
+        private boolean enviada;
+
+        private RespostaOutputStream(HttpExchange exchange, int statusCode, boolean condicional) {
+            this.exchange = exchange;
+            this.statusCode = statusCode;
+            this.condicional = condicional;
+            this.segmentos[quantidade++] = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (corpo != null) {
+                corpo.write(b);
+                return;
+            }
+            if (tamanho == buffer.length && !proximoSegmento()) {
+                iniciarChunked();
+                corpo.write(b);
+                return;
+            }
+            buffer[tamanho++] = (byte) b;
+            total++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (corpo != null) {
+                    corpo.write(b, off, len);
+                    return;
+                }
+                if (tamanho == buffer.length && !proximoSegmento()) {
+                    iniciarChunked();
+                    continue;
+                }
+                int copiar = Math.min(len, buffer.length - tamanho);
+                System.arraycopy(b, off, buffer, tamanho, copiar);
+                tamanho += copiar;
+                total += copiar;
+                off += copiar;
+                len -= copiar;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (corpo == null) {
+                    enviarBufferizada();
+                } else {
+                    corpo.close();
+                }
+            } finally {
+                liberarBuffers();
+            }
+        }
+
+        private void enviarBufferizada() throws IOException {
+            Compressao compressao = total >= Compressao.MIN_BYTES ? Compressao.negociar(exchange) : Compressao.NENHUMA;
+            if (condicional) {
+                // Recursos versionados já trazem o ETag da versão; os demais usam o hash dos bytes
+                String etag = exchange.getResponseHeaders().getFirst(PreCondicao.HEADER_ETAG);
+                if (etag == null) {
+                    etag = calcularEtag(segmentos, quantidade, tamanho, total);
+                }
+                exchange.getResponseHeaders().set(PreCondicao.HEADER_ETAG, etagCodificado(etag, compressao));
+                if (etagCombina(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+                    exchange.getResponseHeaders().remove(HEADER_CONTENT_TYPE);
+                    enviada = true;
+                    enviarSemCorpo(exchange, 304);
+                    return;
+                }
+            }
+            OutputStream saida;
+            if (compressao == Compressao.NENHUMA) {
+                exchange.sendResponseHeaders(statusCode, total);
+                saida = exchange.getResponseBody();
+            } else {
+                compressao.marcar(exchange);
+                exchange.sendResponseHeaders(statusCode, 0);
+                saida = compressao.envolver(exchange.getResponseBody());
+            }
+            enviada = true;
+            escreverSegmentos(saida);
+            saida.close();
+        }
+
+        private boolean proximoSegmento() {
+            if (quantidade == segmentos.length) {
+                return false;
+            }
+            buffer = BufferPool.obter();
+            segmentos[quantidade++] = buffer;
+            tamanho = 0;
+            return true;
+        }
+
+        private void iniciarChunked() throws IOException {
+            Compressao compressao = Compressao.negociar(exchange);
+            compressao.marcar(exchange);
+            exchange.sendResponseHeaders(statusCode, 0);
+            enviada = true;
+            OutputStream saida = compressao.envolver(exchange.getResponseBody());
+            escreverSegmentos(saida);
+            corpo = saida;
+            liberarBuffers();
+        }
+
+        private void escreverSegmentos(OutputStream saida) throws IOException {
+            for (int i = 0; i < quantidade; i++) {
+                saida.write(segmentos[i], 0, i == quantidade - 1 ? tamanho : segmentos[i].length);
+            }
+        }
+
+        // Devolve os buffers; retorna true se nada tinha sido enviado ainda
+        private boolean descartar() {
+            boolean intacta = !enviada;
+            liberarBuffers();
+            if (intacta) {
+                exchange.getResponseHeaders().remove("Content-Encoding");
+            }
+            return intacta;
+        }
+
+        private void liberarBuffers() {
+            for (int i = 0; i < quantidade; i++) {
+                BufferPool.devolver(segmentos[i]);
+                segmentos[i] = null;
+            }
+            quantidade = 0;
+            buffer = null;
+        }
+    }
+}
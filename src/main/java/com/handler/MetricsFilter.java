@@ -0,0 +1,128 @@
+package com.handler;
+
+import com.config.LatencyHistogram;
+import com.config.MetricsRegistry;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MetricsFilter extends Filter {
+
+    private static final int MAX_SEGMENTOS = 2;
+    private static final String METODO_OUTRO = "OTHER";
+
+    private final String contexto;
+    private final Set<String> segmentosFixos;
+    private final ConcurrentMap<String, ConcurrentMap<String, RotaMetrics>> porMetodo = new ConcurrentHashMap<>();
+
+    public MetricsFilter(String contexto, Set<String> segmentosFixos) {
+        this.contexto = contexto;
+        this.segmentosFixos = segmentosFixos;
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        long inicio = System.nanoTime();
+        boolean falhou = true;
+        try {
+            chain.doFilter(exchange);
+            falhou = false;
+        } finally {
+            long duracao = System.nanoTime() - inicio;
+            int status = exchange.getResponseCode();
+            if (falhou || status < 0) {
+                status = 500;
+            }
+            rotaMetrics(exchange).registrar(status, duracao);
+            RotaRequisicao.limpar();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Registra contagem, status e latência por rota";
+    }
+
+    private RotaMetrics rotaMetrics(HttpExchange exchange) {
+        String metodo = normalizarMetodo(exchange.getRequestMethod());
+        // Handlers com Router informam o template exato; sem ele (rota não encontrada), o path é normalizado
+        String rota = RotaRequisicao.atual();
+        if (rota == null) {
+            rota = normalizar(exchange.getRequestURI().getPath());
+        }
+        return porMetodo.computeIfAbsent(metodo, m -> new ConcurrentHashMap<>())
+                .computeIfAbsent(rota, r -> new RotaMetrics(r, metodo));
+    }
+
+    // O método vira label: qualquer valor fora dos verbos conhecidos cai em uma única série
+    static String normalizarMetodo(String metodo) {
+        // Os handlers aceitam o método em qualquer caixa, então a série segue o verbo atendido
+        String verbo = metodo.toUpperCase(Locale.ROOT);
+        switch (verbo) {
+            case "GET":
+            case "POST":
+            case "PUT":
+            case "PATCH":
+            case "DELETE":
+            case "HEAD":
+            case "OPTIONS":
+                return verbo;
+            default:
+                return METODO_OUTRO;
+        }
+    }
+
+    // Troca identificadores por {id} para manter a cardinalidade das séries limitada
+    String normalizar(String path) {
+        if (!path.startsWith(contexto)) {
+            return contexto + "/{outros}";
+        }
+        String resto = path.substring(contexto.length());
+        if (resto.isEmpty() || "/".equals(resto)) {
+            return contexto;
+        }
+        String[] segmentos = resto.substring(1).split("/");
+        if (segmentos.length > MAX_SEGMENTOS) {
+            return contexto + "/{outros}";
+        }
+        StringBuilder rota = new StringBuilder(contexto);
+        for (String segmento : segmentos) {
+            rota.append('/').append(segmentosFixos.contains(segmento) ? segmento : "{id}");
+        }
+        return rota.toString();
+    }
+
+    private static final class RotaMetrics {
+
+        private final String rota;
+        private final String metodo;
+        private final LatencyHistogram latencia;
+        private final AtomicReferenceArray<LongAdder> porStatus = new AtomicReferenceArray<>(600);
+
+        private RotaMetrics(String rota, String metodo) {
+            this.rota = rota;
+            this.metodo = metodo;
+            this.latencia = MetricsRegistry.histogram("http_request_duration_seconds",
+                    "Latência das requisições HTTP", "route", rota, "method", metodo);
+        }
+
+        private void registrar(int status, long duracaoNanos) {
+            latencia.record(duracaoNanos);
+            int indice = status >= 100 && status < 600 ? status : 500;
+            LongAdder contador = porStatus.get(indice);
+            if (contador == null) {
+                contador = MetricsRegistry.counter("http_requests_total", "Requisições HTTP por rota, método e status",
+                        "route", rota, "method", metodo, "status", String.valueOf(indice));
+                porStatus.compareAndSet(indice, null, contador);
+            }
+            contador.increment();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.handler;
+
+import com.config.BoundedExecutor;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+public class OverloadFilter extends Filter {
+
+    private static final byte[] RESPONSE_BODY =
+            "{\"error\":\"Servidor sobrecarregado, tente novamente\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!BoundedExecutor.isSaturado()) {
+            chain.doFilter(exchange);
+            return;
+        }
+
+        log.debug("Requisição {} {} rejeitada: servidor saturado",
+                exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        exchange.getResponseHeaders().set("Connection", "close");
+        exchange.sendResponseHeaders(503, RESPONSE_BODY.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(RESPONSE_BODY);
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Responde 503 quando o executor HTTP está saturado, antes dos demais filtros";
+    }
+}
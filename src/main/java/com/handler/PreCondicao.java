@@ -0,0 +1,49 @@
+package com.handler;
+
+import com.exception.ConflitoVersaoException;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * ETag de recursos versionados ({@code "<versao>"}) e leitura do If-Match para o compare-and-set
+ * das atualizações.
+ */
+final class PreCondicao {
+
+    static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_IF_MATCH = "If-Match";
+
+    private PreCondicao() {
+    }
+
+    static void marcarVersao(HttpExchange exchange, Long versao) {
+        if (versao != null) {
+            exchange.getResponseHeaders().set(HEADER_ETAG, "\"" + versao + "\"");
+        }
+    }
+
+    /**
+     * Versão exigida pelo If-Match, ou null quando a requisição não é condicional. If-Match usa
+     * comparação forte: um ETag fraco ou que não seja de versão nunca confere e vira 412.
+     */
+    static Long versaoEsperada(HttpExchange exchange) {
+        String ifMatch = exchange.getRequestHeaders().getFirst(HEADER_IF_MATCH);
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() < 3 || valor.charAt(0) != '"' || valor.charAt(valor.length() - 1) != '"') {
+            throw new ConflitoVersaoException("If-Match não confere com a versão atual do recurso", null);
+        }
+        String versao = valor.substring(1, valor.length() - 1);
+        for (Compressao compressao : Compressao.values()) {
+            if (compressao != Compressao.NENHUMA && versao.endsWith("-" + compressao.encoding())) {
+                versao = versao.substring(0, versao.length() - compressao.encoding().length() - 1);
+            }
+        }
+        try {
+            return Long.parseLong(versao);
+        } catch (NumberFormatException e) {
+            throw new ConflitoVersaoException("If-Match não confere com a versão atual do recurso", null);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.handler;
 
+import com.dto.BuscaPorIdsDTO;
+import com.dto.ErroDTO;
+import com.dto.PaginaDTO;
 import com.dto.ProdutoDTO;
+import com.dto.ProdutoLoteDTO;
+import com.dto.ResultadoLoteDTO;
 import com.entity.Produto;
+import com.exception.ConflitoVersaoException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.service.ProdutoService;
 import com.sun.net.httpserver.HttpExchange;
@@ -10,152 +17,239 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
 public class ProdutoHttpHandler implements HttpHandler {
 
     private static final String API_PRODUTOS_PATH = "/api/produtos";
-    private static final String API_PRODUTOS_PREFIX = "/api/produtos/";
-    private static final String HEADER_CONTENT_TYPE = "Content-Type";
-    private static final String CONTENT_TYPE_JSON = "application/json; charset=UTF-8";
-    private static final String METHOD_POST = "POST";
-    private static final String METHOD_GET = "GET";
-    private static final String METHOD_PUT = "PUT";
-    private static final String METHOD_DELETE = "DELETE";
+    private static final String API_PRODUTOS_ID_PATH = "/api/produtos/{id}";
+    private static final String API_PRODUTOS_BATCH_PATH = "/api/produtos/batch";
+    private static final String HEADER_ALLOW = "Allow";
+
+    private static final String PARAM_AFTER = "after";
+    private static final String PARAM_LIMIT = "limit";
+    private static final String PARAM_IDS = "ids";
+    private static final String PARAM_TEXTO = "q";
+    private static final String PARAM_PRECO_MIN = "precoMin";
+    private static final String PARAM_PRECO_MAX = "precoMax";
+    private static final String PARAM_SORT = "sort";
 
     private static final String ID_INVALIDO = "Produto com ID";
 
     private final ProdutoService produtoService;
     private final ObjectMapper objectMapper;
+    private final JsonResponseWriter responseWriter;
+    private final Router<AcaoRota> router;
 
     public ProdutoHttpHandler(ProdutoService produtoService, ObjectMapper objectMapper) {
         this.produtoService = produtoService;
         this.objectMapper = objectMapper;
+        this.responseWriter = new JsonResponseWriter(objectMapper);
+        this.router = Router.<AcaoRota>builder()
+                .get(API_PRODUTOS_PATH, this::handleGetTodosProdutos)
+                .post(API_PRODUTOS_PATH, this::handlePostProduto)
+                .post(API_PRODUTOS_BATCH_PATH, this::handlePostLoteProdutos)
+                .get(API_PRODUTOS_ID_PATH, this::handleGetProdutoById)
+                .put(API_PRODUTOS_ID_PATH, this::handlePutProduto)
+                .patch(API_PRODUTOS_ID_PATH, this::handlePatchProduto)
+                .delete(API_PRODUTOS_ID_PATH, this::handleDeleteProduto)
+                .build();
     }
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
         String method = exchange.getRequestMethod().toUpperCase();
         String path = exchange.getRequestURI().getPath();
+        Router.Rota<AcaoRota> rota = router.match(method, path);
 
         try {
-            switch (method) {
-                case METHOD_POST:
-                    if (path.equals(API_PRODUTOS_PATH)) {
-                        handlePostProduto(exchange);
-                    }
+            switch (rota.resultado()) {
+                case ENCONTRADA:
+                    RotaRequisicao.definir(rota.template());
+                    rota.acao().executar(exchange, rota);
                     break;
-                case METHOD_GET:
-                    if (path.equals(API_PRODUTOS_PATH)) {
-                        handleGetTodosProdutos(exchange);
-                    } else if (path.startsWith(API_PRODUTOS_PREFIX)) {
-                        handleGetProdutoById(exchange);
-                    }
-                    break;
-                case METHOD_PUT:
-                    if (path.startsWith(API_PRODUTOS_PREFIX)) {
-                        handlePutProduto(exchange);
-                    }
-                    break;
-                case METHOD_DELETE:
-                    if (path.startsWith(API_PRODUTOS_PREFIX)) {
-                        handleDeleteProduto(exchange);
-                    }
+                case METODO_NAO_PERMITIDO:
+                    RotaRequisicao.definir(rota.template());
+                    log.debug("Método {} não suportado em {}", method, path);
+                    exchange.getResponseHeaders().set(HEADER_ALLOW, rota.allow());
+                    sendResponse(exchange, 405, createErrorResponse("Método não suportado"));
                     break;
                 default:
-                    log.warn("Método não suportado: {}", method);
-                    sendResponse(exchange, 405, createErrorResponse("Método não suportado"));
+                    log.debug("Rota não encontrada: {} {}", method, path);
+                    sendResponse(exchange, 404, createErrorResponse("Recurso não encontrado"));
             }
+        } catch (ConflitoVersaoException e) {
+            log.debug("Pré-condição falhou em {} {}: {}", method, path, e.getMessage());
+            PreCondicao.marcarVersao(exchange, e.getVersaoAtual());
+            sendResponse(exchange, 412, createErrorResponse(e.getMessage()));
         } catch (IllegalArgumentException e) {
-            log.warn("Erro de validação ou recurso não encontrado: {}", e.getMessage());
+            log.debug("Erro de validação ou recurso não encontrado: {}", e.getMessage());
             sendResponse(exchange, 400, createErrorResponse(e.getMessage()));
+        } catch (RespostaAbortadaException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erro inesperado ao processar a requisição: {}", e.getMessage(), e);
             sendResponse(exchange, 500, createErrorResponse("Erro interno no servidor"));
         }
     }
 
-    private void handleGetTodosProdutos(HttpExchange exchange) throws IOException {
-        log.info("Recebida requisição GET para {} (listar todos)", API_PRODUTOS_PATH);
-        List<Produto> produtos = produtoService.listarTodosProdutos();
-        String responseJson = objectMapper.writeValueAsString(produtos);
-        log.info("Retornando {} produtos.", produtos.size());
-        sendResponse(exchange, 200, responseJson);
+    private void handleGetTodosProdutos(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        Map<String, String> params = QueryParams.parse(exchange.getRequestURI().getRawQuery());
+        if (params.containsKey(PARAM_IDS)) {
+            handleGetProdutosPorIds(exchange, params);
+        } else if (params.containsKey(PARAM_TEXTO) || params.containsKey(PARAM_PRECO_MIN)
+                || params.containsKey(PARAM_PRECO_MAX) || params.containsKey(PARAM_SORT)) {
+            handleBuscaProdutos(exchange, params);
+        } else if (params.containsKey(PARAM_AFTER) || params.containsKey(PARAM_LIMIT)) {
+            handleGetPaginaProdutos(exchange, params);
+        } else {
+            handleStreamTodosProdutos(exchange);
+        }
+    }
+
+    private void handleGetPaginaProdutos(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String after = params.get(PARAM_AFTER);
+        Integer limit = QueryParams.parseInt(params, PARAM_LIMIT);
+        log.debug("Recebida requisição GET para {} (página após {}, limite {})", API_PRODUTOS_PATH, after, limit);
+        PaginaDTO<Produto> pagina = produtoService.listarPagina(after, limit);
+        log.debug("Retornando página com {} produtos.", pagina.itens().size());
+        sendResponse(exchange, 200, pagina);
+    }
+
+    private void handleBuscaProdutos(HttpExchange exchange, Map<String, String> params) throws IOException {
+        log.debug("Recebida requisição GET para {} (busca {})", API_PRODUTOS_PATH, params);
+        PaginaDTO<Produto> pagina = produtoService.buscarProdutos(params.get(PARAM_TEXTO),
+                QueryParams.parseBigDecimal(params, PARAM_PRECO_MIN), QueryParams.parseBigDecimal(params, PARAM_PRECO_MAX),
+                params.get(PARAM_SORT), params.get(PARAM_AFTER), QueryParams.parseInt(params, PARAM_LIMIT));
+        log.debug("Busca retornou {} produtos.", pagina.itens().size());
+        sendResponse(exchange, 200, pagina);
+    }
+
+    private void handleGetProdutosPorIds(HttpExchange exchange, Map<String, String> params) throws IOException {
+        List<String> ids = QueryParams.parseList(params, PARAM_IDS);
+        log.debug("Recebida requisição GET para {} ({} ids)", API_PRODUTOS_PATH, ids.size());
+        BuscaPorIdsDTO<Produto, String> resultado = produtoService.buscarPorIds(ids);
+        log.debug("Retornando {} produtos, {} não encontrados.", resultado.itens().size(), resultado.naoEncontrados().size());
+        sendResponse(exchange, 200, resultado);
+    }
+
+    private void handleStreamTodosProdutos(HttpExchange exchange) throws IOException {
+        log.debug("Recebida requisição GET para {} (listar todos em streaming)", API_PRODUTOS_PATH);
+        JsonArrayStream<Produto> stream = new JsonArrayStream<>(exchange, objectMapper);
+        try {
+            produtoService.percorrerTodos(stream);
+            stream.complete();
+            log.debug("Retornados {} produtos.", stream.getCount());
+        } catch (RuntimeException e) {
+            if (!stream.isStarted()) {
+                throw e;
+            }
+            log.error("Falha ao transmitir produtos após {} registros: {}", stream.getCount(), e.getMessage(), e);
+            stream.abort(e);
+        }
     }
 
-    private void handlePostProduto(HttpExchange exchange) throws IOException {
-        log.info("Recebida requisição POST para {}", API_PRODUTOS_PATH);
+    private void handlePostProduto(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        log.debug("Recebida requisição POST para {}", API_PRODUTOS_PATH);
         InputStream requestBody = exchange.getRequestBody();
         ProdutoDTO dto = objectMapper.readValue(requestBody, ProdutoDTO.class);
         Produto novoProduto = produtoService.criarProduto(dto.nome(), dto.preco(), dto.descricao());
-        String responseJson = objectMapper.writeValueAsString(novoProduto);
-        log.info("Produto criado com sucesso. ID: {}", novoProduto.id());
-        sendResponse(exchange, 201, responseJson);
+        log.debug("Produto criado com sucesso. ID: {}", novoProduto.id());
+        PreCondicao.marcarVersao(exchange, novoProduto.versao());
+        sendResponse(exchange, 201, novoProduto);
+    }
+
+    private void handlePostLoteProdutos(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        log.debug("Recebida requisição POST para {}", API_PRODUTOS_BATCH_PATH);
+        try {
+            JsonArrayReader<ProdutoLoteDTO> itens = new JsonArrayReader<>(exchange.getRequestBody(), objectMapper, ProdutoLoteDTO.class);
+            ResultadoLoteDTO<String> resultado = produtoService.salvarProdutosEmLote(itens);
+            log.info("Lote de produtos processado: {} gravados, {} falhas, {} itens/s.",
+                    resultado.sucessos(), resultado.falhas(), resultado.itensPorSegundo());
+            sendResponse(exchange, 200, resultado);
+        } catch (UncheckedIOException | JsonProcessingException e) {
+            log.warn("Corpo do lote de produtos inválido: {}", e.getMessage());
+            sendResponse(exchange, 400, createErrorResponse("JSON inválido no corpo da requisição"));
+        }
     }
 
-    private void handleGetProdutoById(HttpExchange exchange) throws IOException {
-        String id = extractIdFromPath(exchange);
-        log.info("Recebida requisição GET para {}/{}", API_PRODUTOS_PATH, id);
+    private void handleGetProdutoById(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        String id = extractIdFromPath(exchange, rota);
+        log.debug("Recebida requisição GET para {}/{}", API_PRODUTOS_PATH, id);
         Optional<Produto> produtoOpt = produtoService.buscarPorId(id);
         if (produtoOpt.isPresent()) {
-            log.info("Produto com ID {} encontrado.", id);
-            String responseJson = objectMapper.writeValueAsString(produtoOpt.get());
-            sendResponse(exchange, 200, responseJson);
+            log.debug("Produto com ID {} encontrado.", id);
+            PreCondicao.marcarVersao(exchange, produtoOpt.get().versao());
+            sendResponse(exchange, 200, produtoOpt.get());
         } else {
-            log.warn("Produto com ID {} não foi encontrado.", id);
+            log.debug("Produto com ID {} não foi encontrado.", id);
             sendResponse(exchange, 404, createErrorResponse(ID_INVALIDO + id + " não encontrado"));
         }
     }
 
-    private void handlePutProduto(HttpExchange exchange) throws IOException {
-        String id = extractIdFromPath(exchange);
-        log.info("Recebida requisição PUT para {}/{}", API_PRODUTOS_PATH, id);
+    private void handlePutProduto(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        String id = extractIdFromPath(exchange, rota);
+        log.debug("Recebida requisição PUT para {}/{}", API_PRODUTOS_PATH, id);
         InputStream requestBody = exchange.getRequestBody();
         ProdutoDTO dto = objectMapper.readValue(requestBody, ProdutoDTO.class);
 
-        Optional<Produto> produtoAtualizadoOpt = produtoService.atualizarProduto(id, dto.nome(), dto.preco(), dto.descricao());
+        Optional<Produto> produtoAtualizadoOpt = produtoService.atualizarProduto(id, dto.nome(), dto.preco(), dto.descricao(),
+                PreCondicao.versaoEsperada(exchange));
 
         if (produtoAtualizadoOpt.isPresent()) {
-            log.info("Produto com ID {} atualizado com sucesso.", id);
-            String responseJson = objectMapper.writeValueAsString(produtoAtualizadoOpt.get());
-            sendResponse(exchange, 200, responseJson);
+            log.debug("Produto com ID {} atualizado com sucesso.", id);
+            PreCondicao.marcarVersao(exchange, produtoAtualizadoOpt.get().versao());
+            sendResponse(exchange, 200, produtoAtualizadoOpt.get());
         } else {
-            log.warn("Produto com ID {} não foi encontrado para atualização.", id);
+            log.debug("Produto com ID {} não foi encontrado para atualização.", id);
             sendResponse(exchange, 404, createErrorResponse("Produto com ID " + id + " não encontrado para atualização"));
         }
     }
 
-    private void handleDeleteProduto(HttpExchange exchange) throws IOException {
-        String id = extractIdFromPath(exchange);
-        log.info("Recebida requisição DELETE para {}/{}", API_PRODUTOS_PATH, id);
+    private void handlePatchProduto(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        String id = extractIdFromPath(exchange, rota);
+        log.debug("Recebida requisição PATCH para {}/{}", API_PRODUTOS_PATH, id);
+        ProdutoDTO dto = objectMapper.readValue(exchange.getRequestBody(), ProdutoDTO.class);
+
+        Optional<Produto> produtoAtualizadoOpt = produtoService.atualizarProdutoParcial(id, dto.nome(), dto.preco(), dto.descricao(),
+                PreCondicao.versaoEsperada(exchange));
+
+        if (produtoAtualizadoOpt.isPresent()) {
+            log.debug("Produto com ID {} atualizado parcialmente.", id);
+            PreCondicao.marcarVersao(exchange, produtoAtualizadoOpt.get().versao());
+            sendResponse(exchange, 200, produtoAtualizadoOpt.get());
+        } else {
+            log.debug("Produto com ID {} não foi encontrado para atualização.", id);
+            sendResponse(exchange, 404, createErrorResponse("Produto com ID " + id + " não encontrado para atualização"));
+        }
+    }
+
+    private void handleDeleteProduto(HttpExchange exchange, Router.Rota<AcaoRota> rota) throws IOException {
+        String id = extractIdFromPath(exchange, rota);
+        log.debug("Recebida requisição DELETE para {}/{}", API_PRODUTOS_PATH, id);
         boolean deletado = produtoService.deletarProduto(id);
         if (deletado) {
-            log.info("Produto com ID {} deletado com sucesso.", id);
-            sendResponse(exchange, 204, "");
+            log.debug("Produto com ID {} deletado com sucesso.", id);
+            sendResponse(exchange, 204, null);
         } else {
-            log.warn("Falha ao deletar produto com ID {}. Não foi encontrado.", id);
+            log.debug("Falha ao deletar produto com ID {}. Não foi encontrado.", id);
             sendResponse(exchange, 404, createErrorResponse(ID_INVALIDO + id + " não encontrado para deleção"));
         }
     }
 
-    private void sendResponse(HttpExchange exchange, int statusCode, String responseBody) throws IOException {
-        exchange.getResponseHeaders().set(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON);
-        byte[] responseBytes = responseBody.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+    private void sendResponse(HttpExchange exchange, int statusCode, Object responseBody) throws IOException {
+        responseWriter.enviar(exchange, statusCode, statusCode == 204 ? null : responseBody);
     }
 
-    private String extractIdFromPath(HttpExchange exchange) {
-        return exchange.getRequestURI().getPath().substring(API_PRODUTOS_PREFIX.length());
+    private String extractIdFromPath(HttpExchange exchange, Router.Rota<AcaoRota> rota) {
+        return rota.var(exchange.getRequestURI().getPath(), 0);
     }
 
-    private String createErrorResponse(String message) {
-        return "{\"error\":\"" + message + "\"}";
+    private ErroDTO createErrorResponse(String message) {
+        return new ErroDTO(message);
     }
 }
\ No newline at end of file
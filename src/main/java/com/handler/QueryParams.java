@@ -0,0 +1,98 @@
+package com.handler;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class QueryParams {
+
+    private QueryParams() {
+    }
+
+    static Map<String, String> parse(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> params = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int idx = pair.indexOf('=');
+            String key = idx >= 0 ? pair.substring(0, idx) : pair;
+            String value = idx >= 0 ? pair.substring(idx + 1) : "";
+            params.putIfAbsent(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    static Integer parseInt(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro '" + name + "' deve ser numérico");
+        }
+    }
+
+    static Long parseLong(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro '" + name + "' deve ser numérico");
+        }
+    }
+
+    static BigDecimal parseBigDecimal(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro '" + name + "' deve ser numérico");
+        }
+    }
+
+    static List<String> parseList(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> valores = new ArrayList<>();
+        for (String parte : value.split(",")) {
+            String item = parte.trim();
+            if (!item.isEmpty()) {
+                valores.add(item);
+            }
+        }
+        return valores;
+    }
+
+    static List<Long> parseLongList(Map<String, String> params, String name) {
+        List<String> valores = parseList(params, name);
+        List<Long> numeros = new ArrayList<>(valores.size());
+        try {
+            for (String valor : valores) {
+                numeros.add(Long.valueOf(valor));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro '" + name + "' deve conter apenas números separados por vírgula");
+        }
+        return numeros;
+    }
+}
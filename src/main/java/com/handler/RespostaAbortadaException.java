@@ -0,0 +1,15 @@
+package com.handler;
+
+import java.io.IOException;
+
+/**
+ * Sinaliza que uma resposta já iniciada não pode ser concluída. Os handlers a deixam sair de
+ * {@code handle}: o HttpServer do JDK então fecha a conexão sem o chunk final, e o cliente vê
+ * um erro de transporte em vez de um corpo truncado com enquadramento válido.
+ */
+final class RespostaAbortadaException extends IOException {
+
+    RespostaAbortadaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,28 @@
+package com.handler;
+
+/**
+ * Template da rota atendida pela requisição em andamento, compartilhado entre handler e filtros.
+ *
+ * <p>No JDK 17 os atributos de {@code HttpExchange} pertencem ao {@code HttpContext}, não à
+ * requisição, então não servem para isso. Toda a cadeia de filtros e o handler rodam na mesma
+ * thread, e o filtro mais externo limpa o valor ao final.</p>
+ */
+final class RotaRequisicao {
+
+    private static final ThreadLocal<String> ATUAL = new ThreadLocal<>();
+
+    private RotaRequisicao() {
+    }
+
+    static void definir(String template) {
+        ATUAL.set(template);
+    }
+
+    static String atual() {
+        return ATUAL.get();
+    }
+
+    static void limpar() {
+        ATUAL.remove();
+    }
+}
@@ -0,0 +1,278 @@
+package com.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabela de rotas pré-compilada em uma trie de segmentos de path.
+ *
+ * <p>Templates como {@code /api/clientes/{id}/email} são quebrados em segmentos na construção.
+ * O {@link #match} percorre o path comparando regiões da própria String, sem regex, sem
+ * substring e sem alocar; as variáveis são extraídas sob demanda pela {@link Rota} encontrada.
+ * Segmentos fixos têm prioridade sobre variáveis, mas se o ramo fixo não atender o método ou o
+ * restante do path a busca volta e tenta a variável ({@code GET /produtos/batch} casa com
+ * {@code GET /produtos/{id}} mesmo existindo {@code POST /produtos/batch}).</p>
+ */
+public final class Router<H> {
+
+    public enum Resultado {
+        ENCONTRADA,
+        NAO_ENCONTRADA,
+        METODO_NAO_PERMITIDO
+    }
+
+    private final No<H> raiz;
+    private final Rota<H> naoEncontrada;
+
+    private Router(No<H> raiz) {
+        this.raiz = raiz;
+        this.naoEncontrada = new Rota<>(Resultado.NAO_ENCONTRADA, null, null, null, new int[0], null);
+    }
+
+    public static <H> Builder<H> builder() {
+        return new Builder<>();
+    }
+
+    public Rota<H> match(String metodo, String path) {
+        if (path.isEmpty() || path.charAt(0) != '/') {
+            return naoEncontrada;
+        }
+        return match(raiz, metodo, path, 1);
+    }
+
+    private Rota<H> match(No<H> no, String metodo, String path, int inicio) {
+        int tamanho = path.length();
+        if (inicio >= tamanho) {
+            // Fim do path; uma barra final isolada também termina aqui
+            if (no.rotas.length == 0) {
+                return naoEncontrada;
+            }
+            for (Rota<H> rota : no.rotas) {
+                if (rota.metodo.equals(metodo)) {
+                    return rota;
+                }
+            }
+            return no.metodoNaoPermitido;
+        }
+        int fim = path.indexOf('/', inicio);
+        if (fim < 0) {
+            fim = tamanho;
+        }
+        if (fim == inicio) {
+            // Segmento vazio ("//")
+            return naoEncontrada;
+        }
+        Rota<H> resultado = naoEncontrada;
+        No<H> fixo = no.filhoFixo(path, inicio, fim - inicio);
+        if (fixo != null) {
+            resultado = match(fixo, metodo, path, fim + 1);
+            if (resultado.resultado == Resultado.ENCONTRADA) {
+                return resultado;
+            }
+        }
+        // O literal não atendeu o método ou o resto do path: o mesmo segmento ainda pode ser uma variável
+        if (no.variavel != null) {
+            Rota<H> variavel = match(no.variavel, metodo, path, fim + 1);
+            if (variavel.resultado == Resultado.ENCONTRADA || resultado == naoEncontrada) {
+                return variavel;
+            }
+        }
+        return resultado;
+    }
+
+    public static final class Rota<H> {
+
+        private final Resultado resultado;
+        private final String metodo;
+        private final String template;
+        private final H acao;
+        private final int[] segmentosVariaveis;
+        private final String allow;
+
+        private Rota(Resultado resultado, String metodo, String template, H acao, int[] segmentosVariaveis, String allow) {
+            this.resultado = resultado;
+            this.metodo = metodo;
+            this.template = template;
+            this.acao = acao;
+            this.segmentosVariaveis = segmentosVariaveis;
+            this.allow = allow;
+        }
+
+        public Resultado resultado() {
+            return resultado;
+        }
+
+        public String template() {
+            return template;
+        }
+
+        public H acao() {
+            return acao;
+        }
+
+        // Valor para o header Allow quando o resultado é METODO_NAO_PERMITIDO
+        public String allow() {
+            return allow;
+        }
+
+        public String var(String path, int indice) {
+            int inicio = inicioSegmento(path, segmentosVariaveis[indice]);
+            int fim = path.indexOf('/', inicio);
+            return path.substring(inicio, fim < 0 ? path.length() : fim);
+        }
+
+        public long longVar(String path, int indice) {
+            int inicio = inicioSegmento(path, segmentosVariaveis[indice]);
+            int fim = path.indexOf('/', inicio);
+            if (fim < 0) {
+                fim = path.length();
+            }
+            if (fim == inicio) {
+                throw new NumberFormatException("Valor vazio na posição " + indice + " do path: " + path);
+            }
+            // Até 18 dígitos cabem em um long sem overflow; acima disso deixa o Long validar
+            if (fim - inicio > 18) {
+                return Long.parseLong(path.substring(inicio, fim));
+            }
+            long valor = 0;
+            for (int i = inicio; i < fim; i++) {
+                char c = path.charAt(i);
+                if (c < '0' || c > '9') {
+                    throw new NumberFormatException("Valor não numérico na posição " + indice + " do path: " + path);
+                }
+                valor = valor * 10 + (c - '0');
+            }
+            return valor;
+        }
+
+        private static int inicioSegmento(String path, int segmento) {
+            int inicio = 1;
+            for (int i = 0; i < segmento; i++) {
+                inicio = path.indexOf('/', inicio) + 1;
+            }
+            return inicio;
+        }
+    }
+
+    public static final class Builder<H> {
+
+        private final No<H> raiz = new No<>();
+
+        private Builder() {
+        }
+
+        public Builder<H> get(String template, H acao) {
+            return rota("GET", template, acao);
+        }
+
+        public Builder<H> post(String template, H acao) {
+            return rota("POST", template, acao);
+        }
+
+        public Builder<H> put(String template, H acao) {
+            return rota("PUT", template, acao);
+        }
+
+        public Builder<H> patch(String template, H acao) {
+            return rota("PATCH", template, acao);
+        }
+
+        public Builder<H> delete(String template, H acao) {
+            return rota("DELETE", template, acao);
+        }
+
+        public Builder<H> rota(String metodo, String template, H acao) {
+            if (!template.startsWith("/")) {
+                throw new IllegalArgumentException("Template de rota deve começar com '/': " + template);
+            }
+            No<H> no = raiz;
+            List<Integer> variaveis = new ArrayList<>();
+            String[] segmentos = template.substring(1).split("/");
+            for (int i = 0; i < segmentos.length; i++) {
+                String segmento = segmentos[i];
+                if (segmento.isEmpty()) {
+                    throw new IllegalArgumentException("Segmento vazio no template: " + template);
+                }
+                if (segmento.startsWith("{") && segmento.endsWith("}")) {
+                    if (no.variavel == null) {
+                        no.variavel = new No<>();
+                    }
+                    no = no.variavel;
+                    variaveis.add(i);
+                } else {
+                    no = no.filhoFixoOuNovo(segmento);
+                }
+            }
+            for (Rota<H> existente : no.rotas) {
+                if (existente.metodo.equals(metodo)) {
+                    throw new IllegalArgumentException("Rota duplicada: " + metodo + " " + template);
+                }
+            }
+            int[] indices = variaveis.stream().mapToInt(Integer::intValue).toArray();
+            no.adicionar(new Rota<>(Resultado.ENCONTRADA, metodo, template, acao, indices, null));
+            return this;
+        }
+
+        public Router<H> build() {
+            return new Router<>(raiz);
+        }
+    }
+
+    private static final class No<H> {
+
+        private String[] literais = new String[0];
+        private No<H>[] filhos = novoArray(0);
+        private No<H> variavel;
+        private Rota<H>[] rotas = novoArrayRotas(0);
+        private Rota<H> metodoNaoPermitido;
+
+        private No<H> filhoFixo(String path, int inicio, int tamanho) {
+            for (int i = 0; i < literais.length; i++) {
+                String literal = literais[i];
+                if (literal.length() == tamanho && path.regionMatches(inicio, literal, 0, tamanho)) {
+                    return filhos[i];
+                }
+            }
+            return null;
+        }
+
+        private No<H> filhoFixoOuNovo(String literal) {
+            for (int i = 0; i < literais.length; i++) {
+                if (literais[i].equals(literal)) {
+                    return filhos[i];
+                }
+            }
+            No<H> novo = new No<>();
+            literais = Arrays.copyOf(literais, literais.length + 1);
+            literais[literais.length - 1] = literal;
+            filhos = Arrays.copyOf(filhos, filhos.length + 1);
+            filhos[filhos.length - 1] = novo;
+            return novo;
+        }
+
+        private void adicionar(Rota<H> rota) {
+            rotas = Arrays.copyOf(rotas, rotas.length + 1);
+            rotas[rotas.length - 1] = rota;
+            StringBuilder allow = new StringBuilder();
+            for (Rota<H> r : rotas) {
+                if (allow.length() > 0) {
+                    allow.append(", ");
+                }
+                allow.append(r.metodo);
+            }
+            metodoNaoPermitido = new Rota<>(Resultado.METODO_NAO_PERMITIDO, null, rota.template, null,
+                    new int[0], allow.toString());
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <H> No<H>[] novoArray(int tamanho) {
+            return (No<H>[]) new No[tamanho];
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <H> Rota<H>[] novoArrayRotas(int tamanho) {
+            return (Rota<H>[]) new Rota[tamanho];
+        }
+    }
+}
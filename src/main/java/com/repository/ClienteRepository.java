@@ -1,48 +1,91 @@
 package com.repository;
 
+import com.config.AppConfig;
+import com.config.JsonConfig;
 import com.config.PostgresConfig;
 import com.entity.Cliente;
+import com.exception.ConflitoVersaoException;
 
+import java.sql.Array;
+import java.sql.BatchUpdateException;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class ClienteRepository {
 
+    public static final String TOPICO_CLIENTE_CRIADO = "clientes-topic";
+    public static final String TOPICO_CLIENTE_ATUALIZADO = "clientes-atualizados-topic";
+    public static final String TOPICO_CLIENTE_REMOVIDO = "clientes-removidos-topic";
+    // unique_violation; em clientes só o índice ux_clientes_email_lower pode dispará-lo
+    private static final String SQLSTATE_VIOLACAO_UNICIDADE = "23505";
+
+    private final int fetchSize = AppConfig.getInt("clientes.listagem.fetchSize", 500);
+    private final OutboxRepository outboxRepository;
+
+    public ClienteRepository() {
+        this(new OutboxRepository(JsonConfig.getObjectMapper()));
+    }
+
+    public ClienteRepository(OutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    public static boolean emailDuplicado(SQLException e) {
+        return SQLSTATE_VIOLACAO_UNICIDADE.equals(e.getSQLState());
+    }
+
     public Cliente salvar(Cliente cliente) throws SQLException {
         if (cliente.id() != null) {
-            return atualizar(cliente);
+            return atualizar(cliente)
+                    .orElseThrow(() -> new SQLException("Nenhum cliente atualizado"));
         }
 
         String sql = "INSERT INTO clientes (nome, email, telefone, endereco) " +
                 "VALUES (?, ?, ?, ?) RETURNING id";
 
-        try (Connection connection = PostgresConfig.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = PostgresConfig.getConnection()) {
+            connection.setAutoCommit(false);
+            Cliente clienteSalvo;
 
-            preparedStatement.setString(1, cliente.nome());
-            preparedStatement.setString(2, cliente.email());
-            preparedStatement.setString(3, cliente.telefone());
-            preparedStatement.setString(4, cliente.endereco());
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                preparedStatement.setString(1, cliente.nome());
+                preparedStatement.setString(2, cliente.email());
+                preparedStatement.setString(3, cliente.telefone());
+                preparedStatement.setString(4, cliente.endereco());
 
-            try (ResultSet rs = preparedStatement.executeQuery()) {
-                if (rs.next()) {
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Falha ao obter ID gerado");
+                    }
                     Long novoId = rs.getLong("id");
-                    return new Cliente(novoId, cliente.nome(), cliente.email(),
-                            cliente.telefone(), cliente.endereco());
+                    clienteSalvo = new Cliente(novoId, cliente.nome(), cliente.email(),
+                            cliente.telefone(), cliente.endereco(), 0L);
                 }
-                throw new SQLException("Falha ao obter ID gerado");
             }
+
+            outboxRepository.registrar(connection, TOPICO_CLIENTE_CRIADO, clienteSalvo);
+            connection.commit();
+            return clienteSalvo;
         }
     }
 
+    public LoteClientes iniciarLote() throws SQLException {
+        return new LoteClientes(PostgresConfig.getConnection(), outboxRepository);
+    }
+
     public Optional<Cliente> buscarPorId(Long id) throws SQLException {
-        String sql = "SELECT id, nome, email, telefone, endereco FROM clientes WHERE id = ?";
+        String sql = "SELECT id, nome, email, telefone, endereco, versao FROM clientes WHERE id = ?";
         try (Connection connection = PostgresConfig.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
 
@@ -50,90 +93,379 @@ public class ClienteRepository {
 
             try (ResultSet rs = preparedStatement.executeQuery()) {
                 if (rs.next()) {
-                    Cliente cliente = new Cliente(
-                            rs.getLong("id"),
-                            rs.getString("nome"),
-                            rs.getString("email"),
-                            rs.getString("telefone"),
-                            rs.getString("endereco")
-                    );
-                    return Optional.of(cliente);
-
+                    return Optional.of(mapearCliente(rs));
                 }
             }
         }
         return Optional.empty();
     }
 
+    /**
+     * Busca vários clientes em uma única consulta ({@code id = ANY(?)}); ids inexistentes são
+     * simplesmente omitidos e a ordem do resultado não é garantida.
+     */
+    public List<Cliente> buscarPorIds(Collection<Long> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT id, nome, email, telefone, endereco, versao FROM clientes WHERE id = ANY(?)";
+        try (Connection connection = PostgresConfig.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+
+            Array array = connection.createArrayOf("bigint", ids.toArray());
+            try {
+                preparedStatement.setArray(1, array);
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    List<Cliente> clientes = new ArrayList<>(ids.size());
+                    while (rs.next()) {
+                        clientes.add(mapearCliente(rs));
+                    }
+                    return clientes;
+                }
+            } finally {
+                array.free();
+            }
+        }
+    }
+
     public List<Cliente> listarTodos() throws SQLException {
-        String sql = "SELECT id, nome, email, telefone, endereco FROM clientes ORDER BY id";
+        String sql = "SELECT id, nome, email, telefone, endereco, versao FROM clientes ORDER BY id";
 
         try (Connection connection = PostgresConfig.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             try (ResultSet rs = preparedStatement.executeQuery()) {
                 List<Cliente> clientes = new ArrayList<>();
                 while (rs.next()) {
-                    Cliente cliente = new Cliente(
-                            rs.getLong("id"),
-                            rs.getString("nome"),
-                            rs.getString("email"),
-                            rs.getString("telefone"),
-                            rs.getString("endereco")
-                    );
-                    clientes.add(cliente);
+                    clientes.add(mapearCliente(rs));
                 }
                 return clientes;
             }
         }
     }
 
-    public Cliente atualizar(Cliente cliente) throws SQLException {
-        String sql = "UPDATE clientes SET nome = ?, email = ?, telefone = ?, " +
-                "endereco = ? " +
-                "WHERE id = ?";
+    public List<Cliente> listarPagina(Long after, int limit) throws SQLException {
+        String sql = "SELECT id, nome, email, telefone, endereco, versao FROM clientes WHERE id > ? ORDER BY id LIMIT ?";
 
         try (Connection connection = PostgresConfig.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
 
-            preparedStatement.setString(1, cliente.nome());
-            preparedStatement.setString(2, cliente.email());
-            preparedStatement.setString(3, cliente.telefone());
-            preparedStatement.setString(4, cliente.endereco());
-            preparedStatement.setLong(5, cliente.id());
-
-            int linhasAfetadas = preparedStatement.executeUpdate();
+            preparedStatement.setLong(1, after == null ? 0L : after);
+            preparedStatement.setInt(2, limit);
 
-            if (linhasAfetadas == 0) {
-                throw new SQLException("Nenhum cliente atualizado");
-            } else {
-                return cliente;
-           }
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                List<Cliente> clientes = new ArrayList<>(limit);
+                while (rs.next()) {
+                    clientes.add(mapearCliente(rs));
+                }
+                return clientes;
+            }
         }
     }
 
-    public boolean deletar(Long id) throws SQLException {
-        String sql = "DELETE FROM clientes WHERE id = ?";
+    /**
+     * Busca por filtros combinados com AND, paginada por id (keyset). Cada filtro tem índice
+     * próprio (V3): email exato sem distinguir maiúsculas, nome por trecho (trigramas) e
+     * telefone exato.
+     */
+    public List<Cliente> buscar(FiltroClientes filtro, Long after, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, nome, email, telefone, endereco, versao FROM clientes WHERE id > ?");
+        List<String> parametros = new ArrayList<>(3);
+        if (filtro.email() != null) {
+            sql.append(" AND lower(email) = lower(?)");
+            parametros.add(filtro.email());
+        }
+        if (filtro.nome() != null) {
+            sql.append(" AND lower(nome) LIKE lower(?)");
+            parametros.add("%" + escaparLike(filtro.nome()) + "%");
+        }
+        if (filtro.telefone() != null) {
+            sql.append(" AND telefone = ?");
+            parametros.add(filtro.telefone());
+        }
+        sql.append(" ORDER BY id LIMIT ?");
 
         try (Connection connection = PostgresConfig.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+
+            int indice = 1;
+            preparedStatement.setLong(indice++, after == null ? 0L : after);
+            for (String parametro : parametros) {
+                preparedStatement.setString(indice++, parametro);
+            }
+            preparedStatement.setInt(indice, limit);
+
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                List<Cliente> clientes = new ArrayList<>(Math.min(limit, 64));
+                while (rs.next()) {
+                    clientes.add(mapearCliente(rs));
+                }
+                return clientes;
+            }
+        }
+    }
+
+    private static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public void percorrerTodos(Consumer<Cliente> consumidor) throws SQLException {
+        String sql = "SELECT id, nome, email, telefone, endereco, versao FROM clientes ORDER BY id";
+
+        try (Connection connection = PostgresConfig.getConnection()) {
+            // O driver do PostgreSQL só usa cursor (fetch size) fora do modo auto-commit
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                preparedStatement.setFetchSize(fetchSize);
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        consumidor.accept(mapearCliente(rs));
+                    }
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Com {@code cliente.versao()} preenchida, só grava se a versão no banco for a mesma
+     * (compare-and-set); caso contrário lança {@link ConflitoVersaoException}.
+     */
+    public Optional<Cliente> atualizar(Cliente cliente) throws SQLException {
+        String sql = "UPDATE clientes SET nome = ?, email = ?, telefone = ?, " +
+                "endereco = ?, versao = versao + 1 " +
+                "WHERE id = ? AND (?::bigint IS NULL OR versao = ?) " +
+                "RETURNING id, nome, email, telefone, endereco, versao";
 
+        try (Connection connection = PostgresConfig.getConnection()) {
+            connection.setAutoCommit(false);
+            Cliente clienteAtualizado;
+
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                preparedStatement.setString(1, cliente.nome());
+                preparedStatement.setString(2, cliente.email());
+                preparedStatement.setString(3, cliente.telefone());
+                preparedStatement.setString(4, cliente.endereco());
+                preparedStatement.setLong(5, cliente.id());
+                preparedStatement.setObject(6, cliente.versao(), Types.BIGINT);
+                preparedStatement.setObject(7, cliente.versao(), Types.BIGINT);
+
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    if (!rs.next()) {
+                        Long versaoAtual = cliente.versao() == null ? null : buscarVersao(connection, cliente.id());
+                        connection.rollback();
+                        if (versaoAtual != null) {
+                            throw new ConflitoVersaoException("Cliente " + cliente.id()
+                                    + " foi alterado por outra requisição", versaoAtual);
+                        }
+                        return Optional.empty();
+                    }
+                    clienteAtualizado = mapearCliente(rs);
+                }
+            }
+
+            outboxRepository.registrar(connection, TOPICO_CLIENTE_ATUALIZADO, clienteAtualizado);
+            connection.commit();
+            return Optional.of(clienteAtualizado);
+        }
+    }
+
+    // Só no caminho de falha do compare-and-set: distingue conflito de cliente inexistente
+    private Long buscarVersao(Connection connection, Long id) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT versao FROM clientes WHERE id = ?")) {
             preparedStatement.setLong(1, id);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    public boolean deletar(Long id) throws SQLException {
+        String sql = "DELETE FROM clientes WHERE id = ? RETURNING id";
+
+        try (Connection connection = PostgresConfig.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                preparedStatement.setLong(1, id);
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    if (!rs.next()) {
+                        connection.rollback();
+                        return false;
+                    }
+                }
+            }
 
-            int linhasAfetadas = preparedStatement.executeUpdate();
-            return linhasAfetadas > 0;
+            outboxRepository.registrar(connection, TOPICO_CLIENTE_REMOVIDO, Map.of("id", id));
+            connection.commit();
+            return true;
         }
     }
 
-    public void atualizarEmailComProcedure(Long clientId, String novoEmail) throws SQLException {
+    /**
+     * Retorna {@code false}, sem gravar nada nem registrar evento no outbox, se o cliente não existir.
+     */
+    public boolean atualizarEmailComProcedure(Long clientId, String novoEmail) throws SQLException {
         String sql = "CALL sp_atualizar_email_cliente(?, ?)";
 
-        try (Connection connection = PostgresConfig.getConnection();
-             CallableStatement callableStatement = connection.prepareCall(sql)) {
+        try (Connection connection = PostgresConfig.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try {
+                try (CallableStatement callableStatement = connection.prepareCall(sql)) {
+                    callableStatement.setLong(1, clientId);
+                    callableStatement.setString(2, novoEmail);
+
+                    callableStatement.execute();
+                }
+                try (PreparedStatement preparedStatement = connection.prepareStatement(
+                        "UPDATE clientes SET versao = versao + 1 WHERE id = ?")) {
+                    preparedStatement.setLong(1, clientId);
+                    if (preparedStatement.executeUpdate() == 0) {
+                        connection.rollback();
+                        return false;
+                    }
+                }
+
+                outboxRepository.registrar(connection, TOPICO_CLIENTE_ATUALIZADO, Map.of("id", clientId, "email", novoEmail));
+                connection.commit();
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private Cliente mapearCliente(ResultSet rs) throws SQLException {
+        return new Cliente(
+                rs.getLong("id"),
+                rs.getString("nome"),
+                rs.getString("email"),
+                rs.getString("telefone"),
+                rs.getString("endereco"),
+                rs.getLong("versao")
+        );
+    }
+
+    public record ResultadoInsercao(Cliente cliente, String erro) {
+    }
+
+    public record FiltroClientes(String email, String nome, String telefone) {
+    }
+
+    public static final class LoteClientes implements AutoCloseable {
+
+        private static final String INSERT_SQL = "INSERT INTO clientes (nome, email, telefone, endereco) " +
+                "VALUES (?, ?, ?, ?)";
+
+        private final Connection connection;
+        private final OutboxRepository outboxRepository;
+        private boolean committed;
+
+        private LoteClientes(Connection connection, OutboxRepository outboxRepository) throws SQLException {
+            this.connection = connection;
+            this.outboxRepository = outboxRepository;
+            try {
+                connection.setAutoCommit(false);
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        public List<ResultadoInsercao> inserir(List<Cliente> clientes) throws SQLException {
+            List<ResultadoInsercao> resultados = inserirClientes(clientes);
+            List<Cliente> criados = new ArrayList<>(resultados.size());
+            for (ResultadoInsercao resultado : resultados) {
+                if (resultado.cliente() != null) {
+                    criados.add(resultado.cliente());
+                }
+            }
+            outboxRepository.registrarTodos(connection, TOPICO_CLIENTE_CRIADO, criados);
+            return resultados;
+        }
+
+        private List<ResultadoInsercao> inserirClientes(List<Cliente> clientes) throws SQLException {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                for (Cliente cliente : clientes) {
+                    preencherInsert(preparedStatement, cliente);
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+
+                List<ResultadoInsercao> resultados = new ArrayList<>(clientes.size());
+                try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                    for (Cliente cliente : clientes) {
+                        if (!keys.next()) {
+                            throw new SQLException("Falha ao obter ID gerado");
+                        }
+                        resultados.add(new ResultadoInsercao(comId(cliente, keys.getLong(1)), null));
+                    }
+                }
+                connection.releaseSavepoint(savepoint);
+                return resultados;
+            } catch (BatchUpdateException e) {
+                connection.rollback(savepoint);
+                return inserirUmPorUm(clientes);
+            }
+        }
+
+        public void commit() throws SQLException {
+            connection.commit();
+            committed = true;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (!committed) {
+                    connection.rollback();
+                }
+            } finally {
+                connection.close();
+            }
+        }
+
+        private List<ResultadoInsercao> inserirUmPorUm(List<Cliente> clientes) throws SQLException {
+            List<ResultadoInsercao> resultados = new ArrayList<>(clientes.size());
+            try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                for (Cliente cliente : clientes) {
+                    Savepoint savepoint = connection.setSavepoint();
+                    try {
+                        preencherInsert(preparedStatement, cliente);
+                        preparedStatement.executeUpdate();
+                        try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                            if (!keys.next()) {
+                                throw new SQLException("Falha ao obter ID gerado");
+                            }
+                            resultados.add(new ResultadoInsercao(comId(cliente, keys.getLong(1)), null));
+                        }
+                        connection.releaseSavepoint(savepoint);
+                    } catch (SQLException e) {
+                        connection.rollback(savepoint);
+                        resultados.add(new ResultadoInsercao(null, emailDuplicado(e)
+                                ? "E-mail já cadastrado: " + cliente.email()
+                                : e.getMessage()));
+                    }
+                }
+            }
+            return resultados;
+        }
 
-            callableStatement.setLong(1, clientId);
-            callableStatement.setString(2, novoEmail);
+        private static void preencherInsert(PreparedStatement preparedStatement, Cliente cliente) throws SQLException {
+            preparedStatement.setString(1, cliente.nome());
+            preparedStatement.setString(2, cliente.email());
+            preparedStatement.setString(3, cliente.telefone());
+            preparedStatement.setString(4, cliente.endereco());
+        }
 
-            callableStatement.execute();
+        private static Cliente comId(Cliente cliente, long id) {
+            return new Cliente(id, cliente.nome(), cliente.email(), cliente.telefone(), cliente.endereco(), 0L);
         }
     }
 }
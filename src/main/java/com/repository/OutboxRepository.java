@@ -0,0 +1,90 @@
+package com.repository;
+
+import com.config.PostgresConfig;
+import com.entity.EventoOutbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_eventos (topico, payload) VALUES (?, ?)";
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxRepository(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void registrar(Connection connection, String topico, Object evento) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL)) {
+            preparedStatement.setString(1, topico);
+            preparedStatement.setString(2, serializar(evento));
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    public void registrarTodos(Connection connection, String topico, List<?> eventos) throws SQLException {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL)) {
+            for (Object evento : eventos) {
+                preparedStatement.setString(1, topico);
+                preparedStatement.setString(2, serializar(evento));
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        }
+    }
+
+    public int processarPendentes(int limite, Consumer<List<EventoOutbox>> publicador) throws SQLException {
+        String selectSql = "SELECT id, topico, payload FROM outbox_eventos ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+        String deleteSql = "DELETE FROM outbox_eventos WHERE id = ANY(?)";
+
+        try (Connection connection = PostgresConfig.getConnection()) {
+            connection.setAutoCommit(false);
+
+            List<EventoOutbox> eventos = new ArrayList<>(limite);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(selectSql)) {
+                preparedStatement.setInt(1, limite);
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        eventos.add(new EventoOutbox(rs.getLong("id"), rs.getString("topico"), rs.getString("payload")));
+                    }
+                }
+            }
+            if (eventos.isEmpty()) {
+                connection.commit();
+                return 0;
+            }
+
+            publicador.accept(eventos);
+
+            Long[] ids = eventos.stream().map(EventoOutbox::id).toArray(Long[]::new);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(deleteSql)) {
+                Array array = connection.createArrayOf("bigint", ids);
+                preparedStatement.setArray(1, array);
+                preparedStatement.executeUpdate();
+            }
+            connection.commit();
+            return eventos.size();
+        }
+    }
+
+    private String serializar(Object evento) throws SQLException {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Falha ao serializar evento do outbox: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,20 +1,40 @@
 package com.repository;
 
+import com.config.AppConfig;
 import com.config.MongoConfig;
 import com.entity.Produto;
+import com.exception.ConflitoVersaoException;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
-import com.mongodb.client.result.UpdateResult;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.Decimal128;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Slf4j
 public class ProdutoRepository {
@@ -23,10 +43,20 @@ public class ProdutoRepository {
     private static final String NOME = "nome";
     private static final String PRECO = "preco";
     private static final String DESCRICAO = "descricao";
+    private static final String VERSAO = "versao";
+    private static final Bson PROJECAO = Projections.include(NOME, PRECO, DESCRICAO, VERSAO);
+    private static final FindOneAndUpdateOptions OPCOES_ATUALIZACAO = new FindOneAndUpdateOptions()
+            .projection(PROJECAO)
+            .returnDocument(ReturnDocument.AFTER);
     private final MongoCollection<Document> collection;
+    private final int batchSize = AppConfig.getInt("produtos.listagem.batchSize", 500);
 
     public ProdutoRepository() {
-        this.collection = MongoConfig.getDatabase().getCollection("produtos");
+        this(MongoConfig.getDatabase().getCollection("produtos"));
+    }
+
+    public ProdutoRepository(MongoCollection<Document> collection) {
+        this.collection = collection;
     }
 
     public Produto criar(Produto produto) {
@@ -36,12 +66,98 @@ public class ProdutoRepository {
                 .append(ID, novoId)
                 .append(NOME, produto.nome())
                 .append(PRECO, new Decimal128(produto.preco()))
-                .append(DESCRICAO, produto.descricao());
+                .append(DESCRICAO, produto.descricao())
+                .append(VERSAO, 0L);
 
         collection.insertOne(doc);
 
-        log.info("Produto criado no MongoDB com ID: {}", novoId);
-        return new Produto(novoId, produto.nome(), produto.preco(), produto.descricao());
+        log.debug("Produto criado no MongoDB com ID: {}", novoId);
+        return new Produto(novoId, produto.nome(), produto.preco(), produto.descricao(), 0L);
+    }
+
+    /**
+     * Grava o lote em um único {@code bulkWrite} não ordenado. Itens com id do cliente viram upsert
+     * e voltam com a versão lida depois da gravação; se o write concern não for atendido, nenhum
+     * item é dado como gravado.
+     */
+    public List<ResultadoEscrita> salvarEmLote(List<Produto> produtos) {
+        List<WriteModel<Document>> operacoes = new ArrayList<>(produtos.size());
+        List<Produto> salvos = new ArrayList<>(produtos.size());
+        for (Produto produto : produtos) {
+            if (produto.id() == null) {
+                String novoId = UUID.randomUUID().toString();
+                operacoes.add(new InsertOneModel<>(new Document()
+                        .append(ID, novoId)
+                        .append(NOME, produto.nome())
+                        .append(PRECO, new Decimal128(produto.preco()))
+                        .append(DESCRICAO, produto.descricao())
+                        .append(VERSAO, 0L)));
+                salvos.add(new Produto(novoId, produto.nome(), produto.preco(), produto.descricao(), 0L));
+            } else {
+                operacoes.add(new UpdateOneModel<>(
+                        Filters.eq(ID, produto.id()),
+                        new Document("$set", new Document()
+                                .append(NOME, produto.nome())
+                                .append(PRECO, new Decimal128(produto.preco()))
+                                .append(DESCRICAO, produto.descricao()))
+                                .append("$inc", new Document(VERSAO, 1L)),
+                        new UpdateOptions().upsert(true)));
+                salvos.add(produto);
+            }
+        }
+
+        String[] erros = new String[produtos.size()];
+        String erroWriteConcern = null;
+        try {
+            collection.bulkWrite(operacoes, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError erro : e.getWriteErrors()) {
+                erros[erro.getIndex()] = erro.getMessage();
+            }
+            if (e.getWriteConcernError() != null) {
+                erroWriteConcern = "Gravação não confirmada pelo write concern: "
+                        + e.getWriteConcernError().getMessage();
+            }
+            log.warn("Lote de produtos gravado com {} erros (write concern: {})", e.getWriteErrors().size(),
+                    e.getWriteConcernError() != null ? e.getWriteConcernError().getMessage() : "ok");
+        }
+
+        Map<String, Long> versoes = erroWriteConcern == null ? versoesGravadas(produtos, erros) : Map.of();
+        List<ResultadoEscrita> resultados = new ArrayList<>(produtos.size());
+        for (int i = 0; i < produtos.size(); i++) {
+            Produto salvo = salvos.get(i);
+            if (erros[i] != null) {
+                resultados.add(new ResultadoEscrita(null, erros[i]));
+            } else if (erroWriteConcern != null) {
+                resultados.add(new ResultadoEscrita(null, erroWriteConcern));
+            } else if (produtos.get(i).id() != null) {
+                resultados.add(new ResultadoEscrita(new Produto(salvo.id(), salvo.nome(), salvo.preco(),
+                        salvo.descricao(), versoes.get(salvo.id())), null));
+            } else {
+                resultados.add(new ResultadoEscrita(salvo, null));
+            }
+        }
+        return resultados;
+    }
+
+    // O upsert incrementa a versão no servidor; uma única consulta $in devolve o valor gravado
+    private Map<String, Long> versoesGravadas(List<Produto> produtos, String[] erros) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < produtos.size(); i++) {
+            if (erros[i] == null && produtos.get(i).id() != null) {
+                ids.add(produtos.get(i).id());
+            }
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> versoes = new HashMap<>(ids.size() * 2);
+        for (Document doc : collection.find(Filters.in(ID, ids))
+                .projection(Projections.include(VERSAO))
+                .batchSize(ids.size())) {
+            versoes.put(doc.getString(ID), versaoDe(doc));
+        }
+        return versoes;
     }
 
     public Optional<Produto> buscarPorId(String id) {
@@ -54,6 +170,23 @@ public class ProdutoRepository {
         }
     }
 
+    /**
+     * Busca vários produtos em uma única consulta ({@code $in} sobre o _id); ids inexistentes são
+     * simplesmente omitidos e a ordem do resultado não é garantida.
+     */
+    public List<Produto> buscarPorIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Produto> produtos = new ArrayList<>(ids.size());
+        for (Document doc : collection.find(Filters.in(ID, ids))
+                .projection(PROJECAO)
+                .batchSize(ids.size())) {
+            produtos.add(documentToProduto(doc));
+        }
+        return produtos;
+    }
+
     public List<Produto> listarTodos() {
         List<Produto> produtos = new ArrayList<>();
         for (Document doc : collection.find()) {
@@ -62,27 +195,181 @@ public class ProdutoRepository {
         return produtos;
     }
 
-    public boolean atualizar(Produto produto) {
+    public List<Produto> listarPagina(String after, int limit) {
+        Bson filtro = after == null ? new Document() : Filters.gt(ID, after);
+        List<Produto> produtos = new ArrayList<>(limit);
+        for (Document doc : collection.find(filtro)
+                .projection(PROJECAO)
+                .sort(Sorts.ascending(ID))
+                .limit(limit)
+                .batchSize(Math.min(limit, batchSize))) {
+            produtos.add(documentToProduto(doc));
+        }
+        return produtos;
+    }
+
+    /**
+     * Cria (se ainda não existirem) os índices usados pela busca: texto em nome/descrição e
+     * preço + _id, que atende tanto o filtro por faixa quanto a ordenação paginada por preço.
+     */
+    public void criarIndices() {
+        collection.createIndex(Indexes.compoundIndex(Indexes.text(NOME), Indexes.text(DESCRICAO)),
+                new IndexOptions().name("ix_produtos_texto").defaultLanguage("portuguese"));
+        collection.createIndex(Indexes.ascending(PRECO, ID), new IndexOptions().name("ix_produtos_preco"));
+        log.info("Índices de busca da coleção de produtos verificados");
+    }
+
+    /**
+     * Busca paginada por cursor: {@code precoApos}/{@code idApos} são a chave de ordenação do
+     * último item da página anterior (preço só é usado nas ordenações por preço).
+     */
+    public List<Produto> buscar(FiltroProdutos filtro, BigDecimal precoApos, String idApos, int limit) {
+        List<Bson> condicoes = new ArrayList<>(4);
+        if (filtro.texto() != null) {
+            condicoes.add(Filters.text(filtro.texto()));
+        }
+        if (filtro.precoMin() != null) {
+            condicoes.add(Filters.gte(PRECO, new Decimal128(filtro.precoMin())));
+        }
+        if (filtro.precoMax() != null) {
+            condicoes.add(Filters.lte(PRECO, new Decimal128(filtro.precoMax())));
+        }
+        if (idApos != null) {
+            condicoes.add(filtroCursor(filtro.ordenacao(), precoApos, idApos));
+        }
+        Bson consulta = condicoes.isEmpty() ? new Document() : Filters.and(condicoes);
+
+        List<Produto> produtos = new ArrayList<>(limit);
+        for (Document doc : collection.find(consulta)
+                .projection(PROJECAO)
+                .sort(ordenacao(filtro.ordenacao()))
+                .limit(limit)
+                .batchSize(Math.min(limit, batchSize))) {
+            produtos.add(documentToProduto(doc));
+        }
+        return produtos;
+    }
+
+    private static Bson ordenacao(OrdenacaoProdutos ordenacao) {
+        switch (ordenacao) {
+            case PRECO_ASC:
+                return Sorts.ascending(PRECO, ID);
+            case PRECO_DESC:
+                return Sorts.descending(PRECO, ID);
+            case ID:
+            default:
+                return Sorts.ascending(ID);
+        }
+    }
+
+    // Seek pela chave composta (preço, _id) na mesma direção da ordenação, sem skip
+    private static Bson filtroCursor(OrdenacaoProdutos ordenacao, BigDecimal precoApos, String idApos) {
+        if (ordenacao == OrdenacaoProdutos.ID || precoApos == null) {
+            return Filters.gt(ID, idApos);
+        }
+        Decimal128 preco = new Decimal128(precoApos);
+        if (ordenacao == OrdenacaoProdutos.PRECO_ASC) {
+            return Filters.or(Filters.gt(PRECO, preco),
+                    Filters.and(Filters.eq(PRECO, preco), Filters.gt(ID, idApos)));
+        }
+        return Filters.or(Filters.lt(PRECO, preco),
+                Filters.and(Filters.eq(PRECO, preco), Filters.lt(ID, idApos)));
+    }
+
+    public void percorrerTodos(Consumer<Produto> consumidor) {
+        try (MongoCursor<Document> cursor = collection.find()
+                .projection(PROJECAO)
+                .batchSize(batchSize)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                consumidor.accept(documentToProduto(cursor.next()));
+            }
+        }
+    }
+
+    /**
+     * Com {@code produto.versao()} preenchida, só grava se a versão no banco for a mesma
+     * (compare-and-set); caso contrário lança {@link ConflitoVersaoException}.
+     */
+    public Optional<Produto> atualizar(Produto produto) {
         if (produto.id() == null) {
             log.error("ID nulo para atualização");
-            return false;
+            return Optional.empty();
         }
 
-        Document filtro = new Document(ID, produto.id());
-        Document update = new Document("$set", new Document()
+        Document campos = new Document()
                 .append(NOME, produto.nome())
                 .append(PRECO, new Decimal128(produto.preco()))
-                .append(DESCRICAO, produto.descricao()));
+                .append(DESCRICAO, produto.descricao());
+        return atualizarCampos(produto.id(), campos, produto.versao());
+    }
+
+    /**
+     * Atualiza só os campos não nulos; retorna vazio se o produto não existir.
+     */
+    public Optional<Produto> atualizarParcial(String id, String nome, BigDecimal preco, String descricao,
+                                              Long versaoEsperada) {
+        Document campos = new Document();
+        if (nome != null) {
+            campos.append(NOME, nome);
+        }
+        if (preco != null) {
+            campos.append(PRECO, new Decimal128(preco));
+        }
+        if (descricao != null) {
+            campos.append(DESCRICAO, descricao);
+        }
+        if (campos.isEmpty()) {
+            Optional<Produto> atual = buscarPorId(id);
+            atual.ifPresent(produto -> verificarVersao(produto, versaoEsperada));
+            return atual;
+        }
+        return atualizarCampos(id, campos, versaoEsperada);
+    }
 
-        UpdateResult result = collection.updateOne(filtro, update);
-        boolean foiAtualizado = result.getModifiedCount() > 0;
+    // findOneAndUpdate devolve o documento já atualizado: sem leitura prévia e sem depender de
+    // getModifiedCount(), que é zero quando os valores gravados são iguais aos atuais
+    private Optional<Produto> atualizarCampos(String id, Document campos, Long versaoEsperada) {
+        Document update = new Document("$set", campos).append("$inc", new Document(VERSAO, 1L));
+        Document atualizado = collection.findOneAndUpdate(filtroVersao(id, versaoEsperada), update,
+                OPCOES_ATUALIZACAO);
+        if (atualizado != null) {
+            log.debug("Produto atualizado no MongoDB: {}", id);
+            return Optional.of(documentToProduto(atualizado));
+        }
+        if (versaoEsperada != null) {
+            // Só no caminho de falha do compare-and-set: distingue conflito de produto inexistente
+            Document atual = collection.find(Filters.eq(ID, id)).projection(Projections.include(VERSAO)).first();
+            if (atual != null) {
+                throw new ConflitoVersaoException("Produto " + id + " foi alterado por outra requisição",
+                        versaoDe(atual));
+            }
+        }
+        log.debug("Nenhum produto foi atualizado com o ID: {}", id);
+        return Optional.empty();
+    }
+
+    // Documentos anteriores ao controle de versão não têm o campo e valem como versão 0
+    private static Bson filtroVersao(String id, Long versaoEsperada) {
+        if (versaoEsperada == null) {
+            return Filters.eq(ID, id);
+        }
+        Bson versao = versaoEsperada == 0L
+                ? Filters.or(Filters.eq(VERSAO, 0L), Filters.exists(VERSAO, false))
+                : Filters.eq(VERSAO, versaoEsperada);
+        return Filters.and(Filters.eq(ID, id), versao);
+    }
 
-        if (foiAtualizado) {
-            log.info("Produto atualizado no MongoDB: {}", produto.id());
-        } else {
-            log.warn("Nenhum produto foi atualizado com o ID: {}", produto.id());
+    private static void verificarVersao(Produto produto, Long versaoEsperada) {
+        if (versaoEsperada != null && !versaoEsperada.equals(produto.versao())) {
+            throw new ConflitoVersaoException("Produto " + produto.id() + " foi alterado por outra requisição",
+                    produto.versao());
         }
-        return foiAtualizado;
+    }
+
+    private static long versaoDe(Document doc) {
+        Number versao = doc.get(VERSAO, Number.class);
+        return versao != null ? versao.longValue() : 0L;
     }
 
     public boolean deletar(String id) {
@@ -95,14 +382,27 @@ public class ProdutoRepository {
         }
     }
 
-    private Produto documentToProduto(Document doc) {
+    Produto documentToProduto(Document doc) {
         Decimal128 precoDecimal = doc.get(PRECO, Decimal128.class);
 
         return new Produto(
                 doc.getString(ID),
                 doc.getString(NOME),
                 precoDecimal != null ? precoDecimal.bigDecimalValue() : BigDecimal.ZERO,
-                doc.getString(DESCRICAO)
+                doc.getString(DESCRICAO),
+                versaoDe(doc)
         );
     }
-}
\ No newline at end of file
+
+    public record ResultadoEscrita(Produto produto, String erro) {
+    }
+
+    public enum OrdenacaoProdutos {
+        ID,
+        PRECO_ASC,
+        PRECO_DESC
+    }
+
+    public record FiltroProdutos(String texto, BigDecimal precoMin, BigDecimal precoMax, OrdenacaoProdutos ordenacao) {
+    }
+}
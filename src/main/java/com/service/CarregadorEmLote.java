@@ -0,0 +1,140 @@
+package com.service;
+
+import com.config.LatencyHistogram;
+import com.config.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Agrupa buscas pontuais concorrentes em uma única consulta por lote ({@code ANY(?)} / {@code $in}).
+ *
+ * <p>A primeira chamada abre um lote e espera a janela configurada (ou o lote encher); as chamadas
+ * que chegam nesse intervalo só registram sua chave e aguardam. Quem abriu o lote executa a
+ * consulta na própria thread e distribui os resultados, de modo que nenhuma thread extra segura
+ * conexões do pool.</p>
+ */
+public class CarregadorEmLote<K, V, E extends Exception> {
+
+    @FunctionalInterface
+    public interface Carga<K, V, E extends Exception> {
+        List<V> carregar(List<K> chaves) throws E;
+    }
+
+    private final Carga<K, V, E> carga;
+    private final Function<V, K> chaveDe;
+    private final long janelaNanos;
+    private final int maximoChaves;
+    private final Object lock = new Object();
+    private Lote<K, V> aberto;
+
+    private final LongAdder lotes;
+    private final LongAdder chaves;
+    private final LongAdder buscas;
+    private final LatencyHistogram espera;
+
+    public CarregadorEmLote(String operacao, Carga<K, V, E> carga, Function<V, K> chaveDe, long janelaMicros,
+                            int maximoChaves) {
+        if (janelaMicros < 0 || maximoChaves <= 0) {
+            throw new IllegalArgumentException("Configuração do carregador inválida: janela=" + janelaMicros
+                    + "us, máximo=" + maximoChaves);
+        }
+        this.carga = carga;
+        this.chaveDe = chaveDe;
+        this.janelaNanos = TimeUnit.MICROSECONDS.toNanos(janelaMicros);
+        this.maximoChaves = maximoChaves;
+        this.lotes = MetricsRegistry.counter("dataloader_batches_total",
+                "Consultas em lote executadas pelos carregadores", "operation", operacao);
+        this.chaves = MetricsRegistry.counter("dataloader_keys_total",
+                "Chaves distintas resolvidas pelas consultas em lote", "operation", operacao);
+        this.buscas = MetricsRegistry.counter("dataloader_loads_total",
+                "Buscas pontuais atendidas pelos carregadores", "operation", operacao);
+        this.espera = MetricsRegistry.histogram("dataloader_wait_seconds",
+                "Tempo entre abrir um lote e disparar sua consulta", "operation", operacao);
+    }
+
+    public Optional<V> carregar(K chave) throws E {
+        buscas.increment();
+        Lote<K, V> lote;
+        CompletableFuture<Optional<V>> resultado;
+        boolean lider = false;
+        synchronized (lock) {
+            if (aberto == null) {
+                aberto = new Lote<>();
+                lider = true;
+            }
+            lote = aberto;
+            resultado = lote.pendentes.computeIfAbsent(chave, k -> new CompletableFuture<>());
+            if (lote.pendentes.size() >= maximoChaves) {
+                aberto = null;
+                lote.cheio.countDown();
+            }
+        }
+
+        if (lider) {
+            aguardarJanela(lote);
+            despachar(lote);
+        }
+        return SingleFlight.aguardar(resultado);
+    }
+
+    public long getLotes() {
+        return lotes.sum();
+    }
+
+    public long getChaves() {
+        return chaves.sum();
+    }
+
+    private void aguardarJanela(Lote<K, V> lote) {
+        long inicio = System.nanoTime();
+        try {
+            if (janelaNanos > 0) {
+                lote.cheio.await(janelaNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            if (aberto == lote) {
+                aberto = null;
+            }
+        }
+        espera.recordSince(inicio);
+    }
+
+    private void despachar(Lote<K, V> lote) {
+        // Fechado o lote, ninguém mais altera pendentes
+        lotes.increment();
+        chaves.add(lote.pendentes.size());
+        try {
+            List<V> valores = carga.carregar(new ArrayList<>(lote.pendentes.keySet()));
+            for (V valor : valores) {
+                CompletableFuture<Optional<V>> pendente = lote.pendentes.get(chaveDe.apply(valor));
+                if (pendente != null) {
+                    pendente.complete(Optional.of(valor));
+                }
+            }
+            for (CompletableFuture<Optional<V>> pendente : lote.pendentes.values()) {
+                pendente.complete(Optional.empty());
+            }
+        } catch (Throwable t) {
+            for (CompletableFuture<Optional<V>> pendente : lote.pendentes.values()) {
+                pendente.completeExceptionally(t);
+            }
+        }
+    }
+
+    private static final class Lote<K, V> {
+        private final Map<K, CompletableFuture<Optional<V>>> pendentes = new LinkedHashMap<>();
+        private final CountDownLatch cheio = new CountDownLatch(1);
+    }
+}
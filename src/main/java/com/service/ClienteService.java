@@ -1,45 +1,155 @@
 package com.service;
 
-import com.config.RedisPublisher;
+import com.config.AppConfig;
+import com.config.LatencyHistogram;
+import com.config.MetricsRegistry;
+import com.dto.BuscaPorIdsDTO;
+import com.dto.ClienteDTO;
+import com.dto.InvalidacaoCacheDTO;
+import com.dto.ItemLoteDTO;
+import com.dto.PaginaDTO;
+import com.dto.ResultadoLoteDTO;
 import com.entity.Cliente;
+import com.exception.ClienteNaoEncontradoException;
 import com.exception.DataAccessException;
+import com.exception.EmailDuplicadoException;
 import com.repository.ClienteRepository;
+import lombok.extern.slf4j.Slf4j;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+@Slf4j
 public class ClienteService {
 
+    private static final int TAMANHO_CHUNK_LOTE = AppConfig.getInt("clientes.lote.tamanhoChunk", 500);
+
+    private static final int LIMITE_PADRAO = AppConfig.getInt("clientes.listagem.limitePadrao", 100);
+    private static final int LIMITE_MAXIMO = AppConfig.getInt("clientes.listagem.limiteMaximo", 1000);
+    private static final int MAXIMO_IDS_POR_BUSCA = AppConfig.getInt("clientes.buscaPorIds.maximo", 100);
+    // Abaixo de três caracteres o índice de trigramas não ajuda e a busca vira varredura
+    private static final int TAMANHO_MINIMO_BUSCA_NOME = 3;
+    private static final boolean CARREGADOR_HABILITADO = AppConfig.getBoolean("clientes.carregador.habilitado", true);
+    private static final long CARREGADOR_JANELA_MICROS = AppConfig.getLong("clientes.carregador.janelaMicros", 1000L);
+    private static final int CARREGADOR_MAXIMO_IDS = AppConfig.getInt("clientes.carregador.maximoIds", 100);
+
+    private static final LatencyHistogram LATENCIA_SALVAR = latencia("salvar");
+    private static final LatencyHistogram LATENCIA_BUSCAR_POR_ID = latencia("buscarPorId");
+    private static final LatencyHistogram LATENCIA_BUSCAR_POR_IDS = latencia("buscarPorIds");
+    private static final LatencyHistogram LATENCIA_LISTAR_TODOS = latencia("listarTodos");
+    private static final LatencyHistogram LATENCIA_LISTAR_PAGINA = latencia("listarPagina");
+    private static final LatencyHistogram LATENCIA_BUSCAR = latencia("buscar");
+    private static final LatencyHistogram LATENCIA_PERCORRER_TODOS = latencia("percorrerTodos");
+    private static final LatencyHistogram LATENCIA_ATUALIZAR = latencia("atualizar");
+    private static final LatencyHistogram LATENCIA_DELETAR = latencia("deletar");
+    private static final LatencyHistogram LATENCIA_ATUALIZAR_EMAIL = latencia("atualizarEmailComProcedure");
+    private static final LatencyHistogram LATENCIA_LOTE_INSERIR = latencia("lote.inserir");
+    private static final LatencyHistogram LATENCIA_LOTE_COMMIT = latencia("lote.commit");
+
     private final ClienteRepository clienteRepository;
-    private final RedisPublisher redisPublisher;
+    private final LocalCache<Long, Cliente> cache;
+    private final SingleFlight<Long, Optional<Cliente>> buscasPorId = new SingleFlight<>("clientes.buscarPorId");
+    private final SingleFlight<ChavePagina, List<Cliente>> paginas = new SingleFlight<>("clientes.listarPagina");
+    private final CarregadorEmLote<Long, Cliente, SQLException> carregador;
 
-    public ClienteService(ClienteRepository clienteRepository, RedisPublisher redisPublisher) {
+    public ClienteService(ClienteRepository clienteRepository) {
+        this(clienteRepository, new LocalCache<>(
+                AppConfig.getInt("cache.clientes.maxSize", 10_000),
+                AppConfig.getLong("cache.clientes.ttlMs", 60_000L)));
+    }
+
+    public ClienteService(ClienteRepository clienteRepository, LocalCache<Long, Cliente> cache) {
         this.clienteRepository = clienteRepository;
-        this.redisPublisher = redisPublisher;
+        this.cache = cache;
+        this.carregador = CARREGADOR_HABILITADO
+                ? new CarregadorEmLote<>("clientes.buscarPorId",
+                        ids -> LATENCIA_BUSCAR_POR_IDS.medir(() -> clienteRepository.buscarPorIds(ids)), Cliente::id,
+                        CARREGADOR_JANELA_MICROS, CARREGADOR_MAXIMO_IDS)
+                : null;
     }
 
     public Cliente criarCliente(String nome, String email, String telefone,
                                 String endereco) {
         try {
-            if (nome == null || nome.trim().isEmpty()) {
-                throw new IllegalArgumentException("Nome do cliente não pode ser vazio");
-            }
-            if (email == null || email.trim().isEmpty() || !email.contains("@")) {
-                throw new IllegalArgumentException("Email inválido");
-            }
+            validarDadosCliente(nome, email);
 
             Cliente cliente = Cliente.novo(nome, email, telefone, endereco);
-            Cliente clienteSalvo = clienteRepository.salvar(cliente);
+            Cliente salvo = LATENCIA_SALVAR.medir(() -> clienteRepository.salvar(cliente));
+            esquecerListagens();
+            return salvo;
+        } catch (SQLException e) {
+            verificarEmailDuplicado(e, email);
+            throw new DataAccessException("Erro ao salvar cliente: " + e.getMessage(), e);
+        }
+    }
 
-            if (clienteSalvo != null) {
-                redisPublisher.publish("clientes-topic", clienteSalvo);
-            }
+    public ResultadoLoteDTO<Long> criarClientesEmLote(Iterator<ClienteDTO> itens) {
+        long inicio = System.nanoTime();
+        List<ItemLoteDTO<Long>> resultados = new ArrayList<>();
+        int processados = 0;
+        int criados = 0;
 
-            return clienteSalvo;
+        try (ClienteRepository.LoteClientes lote = clienteRepository.iniciarLote()) {
+            List<Cliente> chunk = new ArrayList<>(TAMANHO_CHUNK_LOTE);
+            List<Integer> indices = new ArrayList<>(TAMANHO_CHUNK_LOTE);
+
+            while (itens.hasNext()) {
+                int indice = processados++;
+                try {
+                    ClienteDTO dto = itens.next();
+                    if (dto == null) {
+                        throw new IllegalArgumentException("Item do lote não pode ser nulo");
+                    }
+                    validarDadosCliente(dto.nome(), dto.email());
+                    chunk.add(Cliente.novo(dto.nome(), dto.email(), dto.telefone(), dto.endereco()));
+                    indices.add(indice);
+                } catch (IllegalArgumentException e) {
+                    resultados.add(new ItemLoteDTO<>(indice, null, e.getMessage()));
+                }
+
+                if (chunk.size() == TAMANHO_CHUNK_LOTE) {
+                    criados += inserirChunk(lote, chunk, indices, resultados);
+                }
+            }
+            criados += inserirChunk(lote, chunk, indices, resultados);
+            LATENCIA_LOTE_COMMIT.medirExecucao(lote::commit);
+            esquecerListagens();
         } catch (SQLException e) {
-            throw new DataAccessException("Erro ao salvar cliente: " + e.getMessage(), e);
+            throw new DataAccessException("Erro ao salvar lote de clientes: " + e.getMessage(), e);
+        }
+
+        resultados.sort(Comparator.comparingInt(ItemLoteDTO::indice));
+        return ResultadoLoteDTO.of(processados, criados, inicio, resultados);
+    }
+
+    private int inserirChunk(ClienteRepository.LoteClientes lote, List<Cliente> chunk, List<Integer> indices,
+                             List<ItemLoteDTO<Long>> resultados) throws SQLException {
+        if (chunk.isEmpty()) {
+            return 0;
         }
+        int criados = 0;
+        List<ClienteRepository.ResultadoInsercao> inseridos = LATENCIA_LOTE_INSERIR.medir(() -> lote.inserir(chunk));
+        for (int i = 0; i < inseridos.size(); i++) {
+            ClienteRepository.ResultadoInsercao resultado = inseridos.get(i);
+            if (resultado.cliente() != null) {
+                criados++;
+                resultados.add(new ItemLoteDTO<>(indices.get(i), resultado.cliente().id(), null));
+            } else {
+                resultados.add(new ItemLoteDTO<>(indices.get(i), null, resultado.erro()));
+            }
+        }
+        chunk.clear();
+        indices.clear();
+        return criados;
     }
 
     public Optional<Cliente> buscarPorId(Long id) {
@@ -47,41 +157,169 @@ public class ClienteService {
             if (id == null || id <= 0) {
                 throw new IllegalArgumentException("ID deve ser maior que zero");
             }
-            return clienteRepository.buscarPorId(id);
+            Optional<Cliente> emCache = cache.get(id);
+            if (emCache.isPresent()) {
+                return emCache;
+            }
+            // Leituras simultâneas do mesmo id que não estão no cache compartilham uma só consulta
+            return buscasPorId.executar(id, () -> {
+                long loadToken = cache.beginLoad();
+                Optional<Cliente> cliente = carregador != null
+                        ? carregador.carregar(id)
+                        : LATENCIA_BUSCAR_POR_ID.medir(() -> clienteRepository.buscarPorId(id));
+                cliente.ifPresent(c -> cache.put(id, c, loadToken));
+                return cliente;
+            });
         } catch (SQLException e) {
             throw new DataAccessException("Erro ao buscar cliente: " + e.getMessage(), e);
         }
     }
 
-    public List<Cliente> listarTodos() {
+    /**
+     * Resolve vários ids de uma vez: o que estiver no cache sai dele e só os ausentes vão ao
+     * banco, em uma única consulta. O resultado segue a ordem (sem repetições) dos ids pedidos.
+     */
+    public BuscaPorIdsDTO<Cliente, Long> buscarPorIds(List<Long> ids) {
         try {
-            return clienteRepository.listarTodos();
+            Set<Long> distintos = validarIds(ids);
+            Map<Long, Cliente> encontrados = new HashMap<>(distintos.size() * 2);
+            List<Long> ausentes = new ArrayList<>();
+            for (Long id : distintos) {
+                Optional<Cliente> emCache = cache.get(id);
+                if (emCache.isPresent()) {
+                    encontrados.put(id, emCache.get());
+                } else {
+                    ausentes.add(id);
+                }
+            }
+            if (!ausentes.isEmpty()) {
+                long loadToken = cache.beginLoad();
+                for (Cliente cliente : LATENCIA_BUSCAR_POR_IDS.medir(() -> clienteRepository.buscarPorIds(ausentes))) {
+                    encontrados.put(cliente.id(), cliente);
+                    cache.put(cliente.id(), cliente, loadToken);
+                }
+            }
+            return montarResultado(distintos, encontrados);
         } catch (SQLException e) {
-            throw new DataAccessException("Erro ao listar clientes: " + e.getMessage(), e);
+            throw new DataAccessException("Erro ao buscar clientes: " + e.getMessage(), e);
         }
     }
 
-    public Cliente atualizarCliente(Long id, String nome, String email, String telefone, String endereco) {
-        try {
+    private static Set<Long> validarIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um ID");
+        }
+        Set<Long> distintos = new LinkedHashSet<>(ids);
+        if (distintos.size() > MAXIMO_IDS_POR_BUSCA) {
+            throw new IllegalArgumentException("No máximo " + MAXIMO_IDS_POR_BUSCA + " IDs por requisição");
+        }
+        for (Long id : distintos) {
             if (id == null || id <= 0) {
                 throw new IllegalArgumentException("ID deve ser maior que zero");
             }
-            if (nome == null || nome.trim().isEmpty()) {
-                throw new IllegalArgumentException("Nome do cliente não pode ser vazio");
+        }
+        return distintos;
+    }
+
+    private static BuscaPorIdsDTO<Cliente, Long> montarResultado(Set<Long> ids, Map<Long, Cliente> encontrados) {
+        List<Cliente> itens = new ArrayList<>(encontrados.size());
+        List<Long> naoEncontrados = new ArrayList<>();
+        for (Long id : ids) {
+            Cliente cliente = encontrados.get(id);
+            if (cliente != null) {
+                itens.add(cliente);
+            } else {
+                naoEncontrados.add(id);
+            }
+        }
+        return new BuscaPorIdsDTO<>(itens, naoEncontrados);
+    }
+
+    public List<Cliente> listarTodos() {
+        try {
+            return LATENCIA_LISTAR_TODOS.medir(clienteRepository::listarTodos);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao listar clientes: " + e.getMessage(), e);
+        }
+    }
+
+    public PaginaDTO<Cliente> listarPagina(Long after, Integer limit) {
+        try {
+            int limite = validarPaginacao(after, limit);
+            List<Cliente> clientes = paginas.executar(new ChavePagina(after, limite),
+                    () -> LATENCIA_LISTAR_PAGINA.medir(() -> clienteRepository.listarPagina(after, limite + 1)));
+            return paginar(clientes, limite);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao listar clientes: " + e.getMessage(), e);
+        }
+    }
+
+    public PaginaDTO<Cliente> buscarClientes(String email, String nome, String telefone, Long after, Integer limit) {
+        try {
+            int limite = validarPaginacao(after, limit);
+            String emailFiltro = email == null || email.isBlank() ? null : email.trim();
+            String nomeFiltro = nome == null || nome.isBlank() ? null : nome.trim();
+            String telefoneFiltro = telefone == null || telefone.isBlank() ? null : telefone.trim();
+            if (emailFiltro == null && nomeFiltro == null && telefoneFiltro == null) {
+                throw new IllegalArgumentException("Informe ao menos um filtro: email, nome ou telefone");
             }
-            if (email == null || email.trim().isEmpty() || !email.contains("@")) {
-                throw new IllegalArgumentException("Email inválido");
+            if (nomeFiltro != null && nomeFiltro.length() < TAMANHO_MINIMO_BUSCA_NOME) {
+                throw new IllegalArgumentException("Parâmetro 'nome' deve ter ao menos "
+                        + TAMANHO_MINIMO_BUSCA_NOME + " caracteres");
             }
+            ClienteRepository.FiltroClientes filtro =
+                    new ClienteRepository.FiltroClientes(emailFiltro, nomeFiltro, telefoneFiltro);
+            return paginar(LATENCIA_BUSCAR.medir(() -> clienteRepository.buscar(filtro, after, limite + 1)), limite);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao buscar clientes: " + e.getMessage(), e);
+        }
+    }
+
+    private int validarPaginacao(Long after, Integer limit) {
+        if (after != null && after < 0) {
+            throw new IllegalArgumentException("Parâmetro 'after' não pode ser negativo");
+        }
+        int limite = limit == null ? LIMITE_PADRAO : limit;
+        if (limite <= 0 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Parâmetro 'limit' deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        return limite;
+    }
 
-            Optional<Cliente> clienteExistente = clienteRepository.buscarPorId(id);
-            if (clienteExistente.isEmpty()) {
-                throw new IllegalArgumentException("Cliente não encontrado com ID: " + id);
+    // Os repositórios buscam limite + 1 linhas: a excedente só indica que há próxima página
+    private static PaginaDTO<Cliente> paginar(List<Cliente> clientes, int limite) {
+        if (clientes.size() <= limite) {
+            return new PaginaDTO<>(clientes, null);
+        }
+        List<Cliente> pagina = clientes.subList(0, limite);
+        return new PaginaDTO<>(pagina, String.valueOf(pagina.get(limite - 1).id()));
+    }
+
+    public void percorrerTodos(Consumer<Cliente> consumidor) {
+        try {
+            LATENCIA_PERCORRER_TODOS.medirExecucao(() -> clienteRepository.percorrerTodos(consumidor));
+        } catch (SQLException e) {
+            throw new DataAccessException("Erro ao listar clientes: " + e.getMessage(), e);
+        }
+    }
+
+    public Cliente atualizarCliente(Long id, String nome, String email, String telefone, String endereco,
+                                    Long versaoEsperada) {
+        try {
+            if (id == null || id <= 0) {
+                throw new IllegalArgumentException("ID deve ser maior que zero");
             }
+            validarDadosCliente(nome, email);
 
-            Cliente clienteAtualizado = clienteExistente.get().atualizar(nome, email, telefone, endereco);
-            return clienteRepository.atualizar(clienteAtualizado);
+            // Um único UPDATE ... RETURNING decide se o cliente existe e devolve a linha gravada
+            Cliente atualizado = new Cliente(id, nome, email, telefone, endereco, versaoEsperada);
+            Cliente clienteSalvo = LATENCIA_ATUALIZAR.medir(() -> clienteRepository.atualizar(atualizado))
+                    .orElseThrow(() -> new ClienteNaoEncontradoException(id));
+            invalidarCache(id);
+            return clienteSalvo;
 
         } catch (SQLException e) {
+            verificarEmailDuplicado(e, email);
             throw new DataAccessException("Erro ao atualizar cliente: " + e.getMessage(), e);
         }
     }
@@ -92,12 +330,11 @@ public class ClienteService {
                 throw new IllegalArgumentException("ID deve ser maior que zero");
             }
 
-            Optional<Cliente> cliente = clienteRepository.buscarPorId(id);
-            if (cliente.isEmpty()) {
-                throw new IllegalArgumentException("Cliente não encontrado com ID: " + id);
+            if (!LATENCIA_DELETAR.medir(() -> clienteRepository.deletar(id))) {
+                throw new ClienteNaoEncontradoException(id);
             }
-
-            return clienteRepository.deletar(id);
+            invalidarCache(id);
+            return true;
 
         } catch (SQLException e) {
             throw new DataAccessException("Erro ao deletar cliente: " + e.getMessage(), e);
@@ -112,9 +349,64 @@ public class ClienteService {
             if (novoEmail == null || novoEmail.trim().isEmpty() || !novoEmail.contains("@")) {
                 throw new IllegalArgumentException("O novo e-mail fornecido é inválido");
             }
-            clienteRepository.atualizarEmailComProcedure(id, novoEmail);
+            if (!LATENCIA_ATUALIZAR_EMAIL.medir(() -> clienteRepository.atualizarEmailComProcedure(id, novoEmail))) {
+                throw new ClienteNaoEncontradoException(id);
+            }
+            invalidarCache(id);
         } catch (SQLException e) {
+            verificarEmailDuplicado(e, novoEmail);
             throw new DataAccessException("Erro ao atualizar e-mail via procedure: " + e.getMessage(), e);
         }
     }
+
+    private static void verificarEmailDuplicado(SQLException e, String email) {
+        if (ClienteRepository.emailDuplicado(e)) {
+            throw new EmailDuplicadoException("E-mail já cadastrado: " + email);
+        }
+    }
+
+    /**
+     * Recebe os eventos de atualização e remoção que o outbox publica depois do commit. Como eles
+     * saem na mesma transação da escrita, nenhuma instância deixa de ser avisada; a que fez a
+     * escrita também recebe o evento e apenas invalida de novo.
+     */
+    public void onInvalidacaoRemota(InvalidacaoCacheDTO invalidacao) {
+        if (invalidacao.id() == null) {
+            return;
+        }
+        log.debug("Invalidando cliente {} no cache por evento do outbox", invalidacao.id());
+        cache.invalidate(invalidacao.id());
+        buscasPorId.esquecer(invalidacao.id());
+        esquecerListagens();
+    }
+
+    public LocalCache.CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    private static LatencyHistogram latencia(String metodo) {
+        return MetricsRegistry.repositorio("ClienteRepository", metodo);
+    }
+
+    private void validarDadosCliente(String nome, String email) {
+        if (nome == null || nome.trim().isEmpty()) {
+            throw new IllegalArgumentException("Nome do cliente não pode ser vazio");
+        }
+        if (email == null || email.trim().isEmpty() || !email.contains("@")) {
+            throw new IllegalArgumentException("Email inválido");
+        }
+    }
+
+    private void invalidarCache(Long id) {
+        cache.invalidate(id);
+        buscasPorId.esquecer(id);
+        esquecerListagens();
+    }
+
+    private void esquecerListagens() {
+        paginas.esquecerTodas();
+    }
+
+    private record ChavePagina(Long after, int limite) {
+    }
 }
@@ -0,0 +1,171 @@
+package com.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache LRU com TTL dividido em segmentos, cada um com seu lock e sua lista de acesso; leituras de
+ * chaves em segmentos diferentes não disputam o mesmo lock.
+ *
+ * <p>Cada invalidação registra, só para a chave afetada, o instante (na sequência de
+ * {@link #beginLoad()}) em que aconteceu; um {@link #put(Object, Object, long)} é descartado apenas
+ * se a sua chave foi invalidada depois do início da leitura. Os registros de um segmento são
+ * limitados: ao estourar, viram um piso único do segmento, o que só descarta cargas a mais.</p>
+ */
+public class LocalCache<K, V> {
+
+    private static final int SEGMENTOS_MAXIMO = 16;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Segmento<K, V>[] segmentos;
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public LocalCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Tamanho máximo do cache deve ser maior que zero");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        int quantidade = Integer.highestOneBit(Math.min(SEGMENTOS_MAXIMO, maxSize));
+        // Arredonda para baixo: a soma dos segmentos nunca passa de maxSize
+        int capacidade = maxSize / quantidade;
+        this.segmentos = (Segmento<K, V>[]) new Segmento[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            segmentos[i] = new Segmento<>(capacidade, evictions);
+        }
+    }
+
+    public Optional<V> get(K key) {
+        Segmento<K, V> segmento = segmentoDe(key);
+        segmento.lock.lock();
+        try {
+            Entry<V> entry = segmento.entries.get(key);
+            if (entry != null && System.nanoTime() - entry.createdAt < ttlNanos) {
+                hits.increment();
+                return Optional.of(entry.value);
+            }
+            if (entry != null) {
+                segmento.entries.remove(key);
+                evictions.increment();
+            }
+        } finally {
+            segmento.lock.unlock();
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Marca o início de uma leitura na origem. O valor lido só é armazenado em
+     * {@link #put(Object, Object, long)} se a mesma chave não for invalidada nesse meio tempo.
+     */
+    public long beginLoad() {
+        return sequencia.get();
+    }
+
+    public void put(K key, V value, long loadToken) {
+        Segmento<K, V> segmento = segmentoDe(key);
+        segmento.lock.lock();
+        try {
+            Long invalidadaEm = segmento.invalidacoes.get(key);
+            if (loadToken >= segmento.piso && (invalidadaEm == null || loadToken >= invalidadaEm)) {
+                segmento.entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        } finally {
+            segmento.lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        Segmento<K, V> segmento = segmentoDe(key);
+        segmento.lock.lock();
+        try {
+            segmento.entries.remove(key);
+            long marca = sequencia.incrementAndGet();
+            if (segmento.invalidacoes.size() >= segmento.capacidade) {
+                segmento.invalidacoes.clear();
+                segmento.piso = marca;
+            } else {
+                segmento.invalidacoes.put(key, marca);
+            }
+        } finally {
+            segmento.lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segmento<K, V> segmento : segmentos) {
+            segmento.lock.lock();
+            try {
+                segmento.entries.clear();
+                segmento.invalidacoes.clear();
+                segmento.piso = sequencia.incrementAndGet();
+            } finally {
+                segmento.lock.unlock();
+            }
+        }
+    }
+
+    public CacheStats getStats() {
+        int size = 0;
+        for (Segmento<K, V> segmento : segmentos) {
+            segmento.lock.lock();
+            try {
+                size += segmento.entries.size();
+            } finally {
+                segmento.lock.unlock();
+            }
+        }
+        return new CacheStats(size, maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private Segmento<K, V> segmentoDe(K key) {
+        int h = key.hashCode();
+        return segmentos[(h ^ (h >>> 16)) & (segmentos.length - 1)];
+    }
+
+    public record CacheStats(int size, int maxSize, long hits, long misses, long evictions) {
+
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record Entry<V>(V value, long createdAt) {
+    }
+
+    private static final class Segmento<K, V> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacidade;
+        private final LinkedHashMap<K, Entry<V>> entries;
+        private final Map<K, Long> invalidacoes = new HashMap<>();
+        private long piso;
+
+        private Segmento(int capacidade, LongAdder evictions) {
+            this.capacidade = capacidade;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > capacidade) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
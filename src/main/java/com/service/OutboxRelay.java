@@ -0,0 +1,85 @@
+package com.service;
+
+import com.config.RedisPublisher;
+import com.entity.EventoOutbox;
+import com.repository.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final RedisPublisher redisPublisher;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder publicados = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+
+    public OutboxRelay(OutboxRepository outboxRepository, RedisPublisher redisPublisher, int tamanhoLote, long intervaloMs) {
+        this.outboxRepository = outboxRepository;
+        this.redisPublisher = redisPublisher;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMs = intervaloMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void iniciar() {
+        scheduler.scheduleWithFixedDelay(this::drenar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        log.info("Relay do outbox iniciado (lote={}, intervalo={} ms)", tamanhoLote, intervaloMs);
+    }
+
+    public void parar() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Relay do outbox parado ({} eventos publicados)", publicados.sum());
+    }
+
+    public long getPublicados() {
+        return publicados.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    private void drenar() {
+        try {
+            int processados;
+            do {
+                processados = outboxRepository.processarPendentes(tamanhoLote, this::publicar);
+                publicados.add(processados);
+            } while (processados == tamanhoLote && !scheduler.isShutdown());
+        } catch (Exception e) {
+            falhas.increment();
+            log.warn("Falha ao drenar outbox, nova tentativa em {} ms: {}", intervaloMs, e.getMessage());
+        }
+    }
+
+    private void publicar(List<EventoOutbox> eventos) {
+        List<RedisPublisher.RawMessage> mensagens = new ArrayList<>(eventos.size());
+        for (EventoOutbox evento : eventos) {
+            mensagens.add(new RedisPublisher.RawMessage(evento.topico(), evento.payload()));
+        }
+        redisPublisher.publishRawBatch(mensagens);
+    }
+}
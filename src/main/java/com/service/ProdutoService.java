@@ -1,60 +1,310 @@
 package com.service;
 
+import com.config.AppConfig;
+import com.config.LatencyHistogram;
+import com.config.MetricsRegistry;
+import com.dto.BuscaPorIdsDTO;
+import com.dto.ItemLoteDTO;
+import com.dto.PaginaDTO;
+import com.dto.ProdutoLoteDTO;
+import com.dto.ResultadoLoteDTO;
 import com.entity.Produto;
 import com.repository.ProdutoRepository;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class ProdutoService {
 
+    private static final int LIMITE_PADRAO = AppConfig.getInt("produtos.listagem.limitePadrao", 100);
+    private static final int LIMITE_MAXIMO = AppConfig.getInt("produtos.listagem.limiteMaximo", 1000);
+    private static final int TAMANHO_CHUNK_LOTE = AppConfig.getInt("produtos.lote.tamanhoChunk", 1000);
+    private static final int MAXIMO_IDS_POR_BUSCA = AppConfig.getInt("produtos.buscaPorIds.maximo", 100);
+    private static final char SEPARADOR_CURSOR = '_';
+    private static final boolean CARREGADOR_HABILITADO = AppConfig.getBoolean("produtos.carregador.habilitado", true);
+    private static final long CARREGADOR_JANELA_MICROS = AppConfig.getLong("produtos.carregador.janelaMicros", 1000L);
+    private static final int CARREGADOR_MAXIMO_IDS = AppConfig.getInt("produtos.carregador.maximoIds", 100);
+
+    private static final LatencyHistogram LATENCIA_CRIAR = latencia("criar");
+    private static final LatencyHistogram LATENCIA_SALVAR_EM_LOTE = latencia("salvarEmLote");
+    private static final LatencyHistogram LATENCIA_BUSCAR_POR_ID = latencia("buscarPorId");
+    private static final LatencyHistogram LATENCIA_BUSCAR_POR_IDS = latencia("buscarPorIds");
+    private static final LatencyHistogram LATENCIA_LISTAR_TODOS = latencia("listarTodos");
+    private static final LatencyHistogram LATENCIA_LISTAR_PAGINA = latencia("listarPagina");
+    private static final LatencyHistogram LATENCIA_BUSCAR = latencia("buscar");
+    private static final LatencyHistogram LATENCIA_PERCORRER_TODOS = latencia("percorrerTodos");
+    private static final LatencyHistogram LATENCIA_ATUALIZAR = latencia("atualizar");
+    private static final LatencyHistogram LATENCIA_ATUALIZAR_PARCIAL = latencia("atualizarParcial");
+    private static final LatencyHistogram LATENCIA_DELETAR = latencia("deletar");
+
     private final ProdutoRepository produtoRepository;
+    private final SingleFlight<String, Optional<Produto>> buscasPorId = new SingleFlight<>("produtos.buscarPorId");
+    private final SingleFlight<ChavePagina, List<Produto>> paginas = new SingleFlight<>("produtos.listarPagina");
+    private final CarregadorEmLote<String, Produto, RuntimeException> carregador;
 
     public ProdutoService(ProdutoRepository produtoRepository) {
         this.produtoRepository = produtoRepository;
+        this.carregador = CARREGADOR_HABILITADO
+                ? new CarregadorEmLote<>("produtos.buscarPorId",
+                        ids -> LATENCIA_BUSCAR_POR_IDS.medir(() -> produtoRepository.buscarPorIds(ids)), Produto::id,
+                        CARREGADOR_JANELA_MICROS, CARREGADOR_MAXIMO_IDS)
+                : null;
     }
 
     public Produto criarProduto(String nome, BigDecimal preco, String descricao) {
-        if (nome == null || nome.trim().isEmpty()) {
-            throw new IllegalArgumentException("Nome do produto não pode ser vazio");
+        validarDadosProduto(nome, preco);
+        Produto produto = Produto.novo(nome, preco, descricao);
+        Produto criado = LATENCIA_CRIAR.medir(() -> produtoRepository.criar(produto));
+        esquecerListagens();
+        return criado;
+    }
+
+    public ResultadoLoteDTO<String> salvarProdutosEmLote(Iterator<ProdutoLoteDTO> itens) {
+        long inicio = System.nanoTime();
+        List<ItemLoteDTO<String>> resultados = new ArrayList<>();
+        List<Produto> chunk = new ArrayList<>(TAMANHO_CHUNK_LOTE);
+        List<Integer> indices = new ArrayList<>(TAMANHO_CHUNK_LOTE);
+        int processados = 0;
+        int sucessos = 0;
+
+        while (itens.hasNext()) {
+            int indice = processados++;
+            try {
+                ProdutoLoteDTO dto = itens.next();
+                if (dto == null) {
+                    throw new IllegalArgumentException("Item do lote não pode ser nulo");
+                }
+                validarDadosProduto(dto.nome(), dto.preco());
+                String id = dto.id() == null || dto.id().isBlank() ? null : dto.id();
+                chunk.add(new Produto(id, dto.nome(), dto.preco(), dto.descricao(), null));
+                indices.add(indice);
+            } catch (IllegalArgumentException e) {
+                resultados.add(new ItemLoteDTO<>(indice, null, e.getMessage()));
+            }
+
+            if (chunk.size() == TAMANHO_CHUNK_LOTE) {
+                sucessos += gravarChunk(chunk, indices, resultados);
+            }
         }
-        if (preco == null || preco.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Preço do produto deve ser maior que zero");
+        sucessos += gravarChunk(chunk, indices, resultados);
+
+        resultados.sort(Comparator.comparingInt(ItemLoteDTO::indice));
+        return ResultadoLoteDTO.of(processados, sucessos, inicio, resultados);
+    }
+
+    private int gravarChunk(List<Produto> chunk, List<Integer> indices, List<ItemLoteDTO<String>> resultados) {
+        if (chunk.isEmpty()) {
+            return 0;
         }
-        Produto produto = Produto.novo(nome, preco, descricao);
-        return produtoRepository.criar(produto);
+        int sucessos = 0;
+        List<ProdutoRepository.ResultadoEscrita> gravados = LATENCIA_SALVAR_EM_LOTE.medir(() -> produtoRepository.salvarEmLote(chunk));
+        esquecerListagens();
+        for (int i = 0; i < gravados.size(); i++) {
+            ProdutoRepository.ResultadoEscrita resultado = gravados.get(i);
+            if (resultado.produto() != null) {
+                sucessos++;
+                buscasPorId.esquecer(resultado.produto().id());
+                resultados.add(new ItemLoteDTO<>(indices.get(i), resultado.produto().id(), null));
+            } else {
+                resultados.add(new ItemLoteDTO<>(indices.get(i), null, resultado.erro()));
+            }
+        }
+        chunk.clear();
+        indices.clear();
+        return sucessos;
     }
 
     public Optional<Produto> buscarPorId(String id) {
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("ID não pode ser nulo ou vazio");
         }
-        return produtoRepository.buscarPorId(id);
+        return buscasPorId.executar(id, () -> carregador != null
+                ? carregador.carregar(id)
+                : LATENCIA_BUSCAR_POR_ID.medir(() -> produtoRepository.buscarPorId(id)));
+    }
+
+    /**
+     * Resolve vários ids em uma única consulta; o resultado segue a ordem (sem repetições) dos
+     * ids pedidos.
+     */
+    public BuscaPorIdsDTO<Produto, String> buscarPorIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um ID");
+        }
+        Set<String> distintos = new LinkedHashSet<>(ids);
+        if (distintos.size() > MAXIMO_IDS_POR_BUSCA) {
+            throw new IllegalArgumentException("No máximo " + MAXIMO_IDS_POR_BUSCA + " IDs por requisição");
+        }
+        if (distintos.stream().anyMatch(id -> id == null || id.isBlank())) {
+            throw new IllegalArgumentException("ID não pode ser nulo ou vazio");
+        }
+
+        Map<String, Produto> encontrados = new HashMap<>(distintos.size() * 2);
+        for (Produto produto : LATENCIA_BUSCAR_POR_IDS.medir(() -> produtoRepository.buscarPorIds(distintos))) {
+            encontrados.put(produto.id(), produto);
+        }
+        List<Produto> itens = new ArrayList<>(encontrados.size());
+        List<String> naoEncontrados = new ArrayList<>();
+        for (String id : distintos) {
+            Produto produto = encontrados.get(id);
+            if (produto != null) {
+                itens.add(produto);
+            } else {
+                naoEncontrados.add(id);
+            }
+        }
+        return new BuscaPorIdsDTO<>(itens, naoEncontrados);
     }
 
     public List<Produto> listarTodosProdutos() {
-        return produtoRepository.listarTodos();
+        return LATENCIA_LISTAR_TODOS.medir(produtoRepository::listarTodos);
+    }
+
+    public PaginaDTO<Produto> listarPagina(String after, Integer limit) {
+        int limite = validarLimite(limit);
+        String cursor = after == null || after.isBlank() ? null : after;
+        List<Produto> produtos = paginas.executar(new ChavePagina(cursor, limite),
+                () -> LATENCIA_LISTAR_PAGINA.medir(() -> produtoRepository.listarPagina(cursor, limite + 1)));
+        if (produtos.size() <= limite) {
+            return new PaginaDTO<>(produtos, null);
+        }
+        List<Produto> pagina = produtos.subList(0, limite);
+        return new PaginaDTO<>(pagina, pagina.get(limite - 1).id());
+    }
+
+    /**
+     * Busca por texto e faixa de preço. Nas ordenações por preço o cursor é
+     * {@code <preço>_<id>} do último item; na ordenação por id, só o id.
+     */
+    public PaginaDTO<Produto> buscarProdutos(String texto, BigDecimal precoMin, BigDecimal precoMax, String sort,
+                                             String after, Integer limit) {
+        int limite = validarLimite(limit);
+        if (precoMin != null && precoMax != null && precoMin.compareTo(precoMax) > 0) {
+            throw new IllegalArgumentException("Parâmetro 'precoMin' não pode ser maior que 'precoMax'");
+        }
+        ProdutoRepository.OrdenacaoProdutos ordenacao = parseOrdenacao(sort);
+        ProdutoRepository.FiltroProdutos filtro = new ProdutoRepository.FiltroProdutos(
+                texto == null || texto.isBlank() ? null : texto.trim(), precoMin, precoMax, ordenacao);
+
+        BigDecimal precoApos = null;
+        String idApos = after == null || after.isBlank() ? null : after;
+        if (idApos != null && ordenacao != ProdutoRepository.OrdenacaoProdutos.ID) {
+            int separador = idApos.indexOf(SEPARADOR_CURSOR);
+            try {
+                precoApos = new BigDecimal(idApos.substring(0, separador));
+                idApos = idApos.substring(separador + 1);
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Parâmetro 'after' inválido para a ordenação '" + sort + "'");
+            }
+        }
+
+        BigDecimal preco = precoApos;
+        String id = idApos;
+        List<Produto> produtos = LATENCIA_BUSCAR.medir(() -> produtoRepository.buscar(filtro, preco, id, limite + 1));
+        if (produtos.size() <= limite) {
+            return new PaginaDTO<>(produtos, null);
+        }
+        List<Produto> pagina = produtos.subList(0, limite);
+        Produto ultimo = pagina.get(limite - 1);
+        String proximoCursor = ordenacao == ProdutoRepository.OrdenacaoProdutos.ID
+                ? ultimo.id()
+                : ultimo.preco().toPlainString() + SEPARADOR_CURSOR + ultimo.id();
+        return new PaginaDTO<>(pagina, proximoCursor);
     }
 
-    public Optional<Produto> atualizarProduto(String id, String novoNome, BigDecimal novoPreco, String novaDescricao) {
-        Optional<Produto> produtoExistenteOpt = produtoRepository.buscarPorId(id);
+    private int validarLimite(Integer limit) {
+        int limite = limit == null ? LIMITE_PADRAO : limit;
+        if (limite <= 0 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Parâmetro 'limit' deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        return limite;
+    }
 
-        if (produtoExistenteOpt.isEmpty()) {
-            return Optional.empty();
+    private static ProdutoRepository.OrdenacaoProdutos parseOrdenacao(String sort) {
+        if (sort == null || sort.isBlank() || "id".equals(sort)) {
+            return ProdutoRepository.OrdenacaoProdutos.ID;
+        }
+        if ("preco".equals(sort)) {
+            return ProdutoRepository.OrdenacaoProdutos.PRECO_ASC;
+        }
+        if ("-preco".equals(sort)) {
+            return ProdutoRepository.OrdenacaoProdutos.PRECO_DESC;
         }
+        throw new IllegalArgumentException("Parâmetro 'sort' deve ser 'id', 'preco' ou '-preco'");
+    }
 
-        Produto produtoExistente = produtoExistenteOpt.get();
-        Produto produtoAtualizado = produtoExistente.atualizar(novoNome, novoPreco, novaDescricao);
+    public void percorrerTodos(Consumer<Produto> consumidor) {
+        LATENCIA_PERCORRER_TODOS.medirExecucao(() -> produtoRepository.percorrerTodos(consumidor));
+    }
 
-        boolean sucesso = produtoRepository.atualizar(produtoAtualizado);
+    public Optional<Produto> atualizarProduto(String id, String novoNome, BigDecimal novoPreco, String novaDescricao,
+                                              Long versaoEsperada) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("ID não pode ser nulo ou vazio");
+        }
+        validarDadosProduto(novoNome, novoPreco);
+        Produto produto = new Produto(id, novoNome, novoPreco, novaDescricao, versaoEsperada);
+        Optional<Produto> atualizado = LATENCIA_ATUALIZAR.medir(() -> produtoRepository.atualizar(produto));
+        esquecer(id);
+        return atualizado;
+    }
 
-        return sucesso ? Optional.of(produtoAtualizado) : Optional.empty();
+    public Optional<Produto> atualizarProdutoParcial(String id, String novoNome, BigDecimal novoPreco, String novaDescricao,
+                                                     Long versaoEsperada) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("ID não pode ser nulo ou vazio");
+        }
+        if (novoNome != null && novoNome.trim().isEmpty()) {
+            throw new IllegalArgumentException("Nome do produto não pode ser vazio");
+        }
+        if (novoPreco != null && novoPreco.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Preço do produto deve ser maior que zero");
+        }
+        Optional<Produto> atualizado = LATENCIA_ATUALIZAR_PARCIAL.medir(() -> produtoRepository.atualizarParcial(
+                id, novoNome, novoPreco, novaDescricao, versaoEsperada));
+        esquecer(id);
+        return atualizado;
     }
 
     public boolean deletarProduto(String id) {
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("ID não pode ser nulo ou vazio");
         }
-        return produtoRepository.deletar(id);
+        boolean deletado = LATENCIA_DELETAR.medir(() -> produtoRepository.deletar(id));
+        esquecer(id);
+        return deletado;
+    }
+
+    private void esquecer(String id) {
+        buscasPorId.esquecer(id);
+        esquecerListagens();
+    }
+
+    private void esquecerListagens() {
+        paginas.esquecerTodas();
+    }
+
+    private static LatencyHistogram latencia(String metodo) {
+        return MetricsRegistry.repositorio("ProdutoRepository", metodo);
+    }
+
+    private void validarDadosProduto(String nome, BigDecimal preco) {
+        if (nome == null || nome.trim().isEmpty()) {
+            throw new IllegalArgumentException("Nome do produto não pode ser vazio");
+        }
+        if (preco == null || preco.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Preço do produto deve ser maior que zero");
+        }
+    }
+
+    private record ChavePagina(String after, int limite) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.service;
+
+import com.config.MetricsRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalescência de leituras idênticas: enquanto uma chamada para uma chave está em andamento, as
+ * demais para a mesma chave esperam por ela e recebem o mesmo resultado (ou a mesma exceção) em
+ * vez de irem ao banco.
+ *
+ * <p>Depois de uma escrita, {@link #esquecer(Object)} desliga a chamada em voo da chave, para que
+ * leituras posteriores à escrita não reaproveitem um resultado que começou antes dela.</p>
+ */
+public class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Chamada<V, E extends Exception> {
+        V executar() throws E;
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> emVoo = new ConcurrentHashMap<>();
+    private final LongAdder executadas;
+    private final LongAdder coalescidas;
+
+    public SingleFlight(String operacao) {
+        this.executadas = MetricsRegistry.counter("singleflight_calls_total",
+                "Leituras executadas na origem ou coalescidas em uma chamada já em andamento",
+                "operation", operacao, "result", "executed");
+        this.coalescidas = MetricsRegistry.counter("singleflight_calls_total",
+                "Leituras executadas na origem ou coalescidas em uma chamada já em andamento",
+                "operation", operacao, "result", "coalesced");
+    }
+
+    public <E extends Exception> V executar(K chave, Chamada<V, E> chamada) throws E {
+        CompletableFuture<V> minha = new CompletableFuture<>();
+        CompletableFuture<V> existente = emVoo.putIfAbsent(chave, minha);
+        if (existente != null) {
+            coalescidas.increment();
+            return aguardar(existente);
+        }
+
+        executadas.increment();
+        try {
+            V valor = chamada.executar();
+            minha.complete(valor);
+            return valor;
+        } catch (Throwable t) {
+            minha.completeExceptionally(t);
+            throw t;
+        } finally {
+            emVoo.remove(chave, minha);
+        }
+    }
+
+    public void esquecer(K chave) {
+        emVoo.remove(chave);
+    }
+
+    public void esquecerTodas() {
+        emVoo.clear();
+    }
+
+    public long getExecutadas() {
+        return executadas.sum();
+    }
+
+    public long getCoalescidas() {
+        return coalescidas.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V, E extends Exception> V aguardar(CompletableFuture<V> emAndamento) throws E {
+        try {
+            return emAndamento.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            // Só resta a exceção verificada declarada pela chamada original
+            throw (E) causa;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS outbox_eventos (
+    id        BIGSERIAL PRIMARY KEY,
+    topico    VARCHAR(200) NOT NULL,
+    payload   TEXT         NOT NULL,
+    criado_em TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
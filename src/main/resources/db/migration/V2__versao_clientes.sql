@@ -0,0 +1 @@
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Busca de clientes (GET /api/clientes?email=&nome=&telefone=)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- email é único sem distinguir maiúsculas; a busca usa lower(email) = lower(?)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_clientes_email_lower ON clientes (lower(email));
+
+-- lower(nome) LIKE '%termo%' via trigramas
+CREATE INDEX IF NOT EXISTS ix_clientes_nome_trgm ON clientes USING gin (lower(nome) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_clientes_telefone ON clientes (telefone);
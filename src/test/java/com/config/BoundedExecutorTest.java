@@ -0,0 +1,113 @@
+package com.config;
+
+import com.handler.FakeHttpExchange;
+import com.handler.OverloadFilter;
+import com.sun.net.httpserver.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedExecutorTest {
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private BoundedExecutor executor;
+
+    @BeforeEach
+    void setup() throws InterruptedException {
+        // Uma vaga e nenhuma fila: a tarefa abaixo ocupa o executor até o fim do teste
+        executor = BoundedExecutor.forMode(ExecutionMode.PLATFORM, 1, 0);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        executor.execute(() -> {
+            ocupado.countDown();
+            aguardar(liberar);
+        });
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    void teardown() {
+        liberar.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void rejeicaoNaoRodaNaThreadDoDispatcher() throws Exception {
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+        CompletableFuture<Boolean> saturado = new CompletableFuture<>();
+
+        executor.execute(() -> {
+            saturado.complete(BoundedExecutor.isSaturado());
+            thread.complete(Thread.currentThread());
+        });
+
+        assertNotSame(Thread.currentThread(), thread.get(5, TimeUnit.SECONDS));
+        assertTrue(saturado.get(5, TimeUnit.SECONDS));
+        assertFalse(BoundedExecutor.isSaturado());
+        assertEquals(1, executor.getRejected());
+    }
+
+    @Test
+    void requisicaoSaturadaRecebe503SemPassarPelosHandlers() throws Exception {
+        FakeHttpExchange exchange = new FakeHttpExchange().reset("GET", "/api/clientes/1", null);
+        AtomicBoolean handlerChamado = new AtomicBoolean();
+        Filter.Chain chain = new Filter.Chain(List.of(new OverloadFilter()), e -> handlerChamado.set(true));
+        CompletableFuture<Void> respondido = new CompletableFuture<>();
+
+        executor.execute(() -> {
+            try {
+                chain.doFilter(exchange);
+                respondido.complete(null);
+            } catch (Exception e) {
+                respondido.completeExceptionally(e);
+            }
+        });
+
+        respondido.get(5, TimeUnit.SECONDS);
+        assertEquals(503, exchange.getResponseCode());
+        assertEquals("1", exchange.getResponseHeaders().getFirst("Retry-After"));
+        assertFalse(handlerChamado.get());
+    }
+
+    @Test
+    void comOPoolDeRejeicaoCheioFechaAConexaoSemExecutarATarefa() {
+        // Clientes lentos prendem as threads de rejeição e enchem a fila delas
+        Runnable lento = () -> aguardar(liberar);
+        int aceitas = 0;
+        while (aceitas < 1_000 && executor.getDropped() == 0) {
+            try {
+                executor.execute(lento);
+                aceitas++;
+            } catch (RejectedExecutionException e) {
+                // a primeira recusa marca o pool de rejeição como cheio
+            }
+        }
+        assertTrue(aceitas > 0 && aceitas < 1_000);
+
+        AtomicBoolean executada = new AtomicBoolean();
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> executada.set(true)));
+        assertFalse(executada.get());
+        assertEquals(2, executor.getDropped());
+        assertEquals(1, executor.getInFlight());
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
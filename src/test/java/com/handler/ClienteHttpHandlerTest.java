@@ -0,0 +1,117 @@
+package com.handler;
+
+import com.config.JsonConfig;
+import com.repository.InMemoryClienteRepository;
+import com.service.ClienteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClienteHttpHandlerTest {
+
+    private static final String CORPO_CLIENTE_1 =
+            "{\"nome\":\"Cliente 0\",\"email\":\"cliente0@exemplo.com\",\"telefone\":\"1\",\"endereco\":\"Rua\"}";
+
+    private ClienteHttpHandler handler;
+    private FakeHttpExchange exchange;
+
+    @BeforeEach
+    void setup() {
+        // cliente0@exemplo.com (id 1) e cliente1@exemplo.com (id 2)
+        InMemoryClienteRepository repository = new InMemoryClienteRepository().popular(2);
+        handler = new ClienteHttpHandler(new ClienteService(repository),
+                JsonConfig.getObjectMapper());
+        exchange = new FakeHttpExchange();
+    }
+
+    @Test
+    void criarComEmailDuplicadoRetorna409() throws IOException {
+        handler.handle(exchange.reset("POST", "/api/clientes",
+                "{\"nome\":\"Outro\",\"email\":\"CLIENTE0@exemplo.com\",\"telefone\":\"1\",\"endereco\":\"Rua\"}"));
+
+        assertEquals(409, exchange.getResponseCode());
+        assertTrue(exchange.getResponseBodyAsString().contains("E-mail já cadastrado"));
+    }
+
+    @Test
+    void atualizarParaEmailDeOutroClienteRetorna409() throws IOException {
+        handler.handle(exchange.reset("PUT", "/api/clientes/2",
+                "{\"nome\":\"Cliente 1\",\"email\":\"cliente0@exemplo.com\",\"telefone\":\"1\",\"endereco\":\"Rua\"}"));
+
+        assertEquals(409, exchange.getResponseCode());
+    }
+
+    @Test
+    void atualizarEmailViaProcedureParaEmailDeOutroClienteRetorna409() throws IOException {
+        handler.handle(exchange.reset("PUT", "/api/clientes/2/email", "{\"novoEmail\":\"cliente0@exemplo.com\"}"));
+
+        assertEquals(409, exchange.getResponseCode());
+    }
+
+    @Test
+    void atualizarEmailDeClienteInexistenteRetorna404() throws IOException {
+        handler.handle(exchange.reset("PUT", "/api/clientes/99/email", "{\"novoEmail\":\"novo@exemplo.com\"}"));
+
+        assertEquals(404, exchange.getResponseCode());
+    }
+
+    @Test
+    void manterOProprioEmailNaoEhConflito() throws IOException {
+        handler.handle(exchange.reset("PUT", "/api/clientes/2",
+                "{\"nome\":\"Novo nome\",\"email\":\"cliente1@exemplo.com\",\"telefone\":\"1\",\"endereco\":\"Rua\"}"));
+
+        assertEquals(200, exchange.getResponseCode());
+    }
+
+    @Test
+    void getDevolveETagDaVersaoE304QuandoIfNoneMatchConfere() throws IOException {
+        handler.handle(exchange.reset("GET", "/api/clientes/1", null));
+        assertEquals(200, exchange.getResponseCode());
+        String etag = exchange.getResponseHeaders().getFirst("ETag");
+        assertEquals("\"0\"", etag);
+
+        exchange.reset("GET", "/api/clientes/1", null);
+        exchange.getRequestHeaders().set("If-None-Match", etag);
+        handler.handle(exchange);
+
+        assertEquals(304, exchange.getResponseCode());
+        assertEquals("", exchange.getResponseBodyAsString());
+    }
+
+    @Test
+    void putComIfMatchDaVersaoAtualGravaEDevolveNovoETag() throws IOException {
+        exchange.reset("PUT", "/api/clientes/1", CORPO_CLIENTE_1);
+        exchange.getRequestHeaders().set("If-Match", "\"0\"");
+        handler.handle(exchange);
+
+        assertEquals(200, exchange.getResponseCode());
+        assertEquals("\"1\"", exchange.getResponseHeaders().getFirst("ETag"));
+    }
+
+    @Test
+    void putComIfMatchDesatualizadoRetorna412ComVersaoAtual() throws IOException {
+        exchange.reset("PUT", "/api/clientes/1", CORPO_CLIENTE_1);
+        exchange.getRequestHeaders().set("If-Match", "\"7\"");
+        handler.handle(exchange);
+
+        assertEquals(412, exchange.getResponseCode());
+        assertEquals("\"0\"", exchange.getResponseHeaders().getFirst("ETag"));
+
+        // Nada foi gravado: a versão continua a mesma
+        handler.handle(exchange.reset("GET", "/api/clientes/1", null));
+        assertEquals("\"0\"", exchange.getResponseHeaders().getFirst("ETag"));
+    }
+
+    @Test
+    void putComIfMatchFracoRetorna412() throws IOException {
+        exchange.reset("PUT", "/api/clientes/1", CORPO_CLIENTE_1);
+        exchange.getRequestHeaders().set("If-Match", "W/\"0\"");
+        handler.handle(exchange);
+
+        assertEquals(412, exchange.getResponseCode());
+    }
+}
@@ -0,0 +1,51 @@
+package com.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouterTest {
+
+    private final Router<String> router = Router.<String>builder()
+            .get("/api/produtos", "listar")
+            .post("/api/produtos/batch", "lote")
+            .get("/api/produtos/{id}", "buscar")
+            .delete("/api/produtos/{id}", "deletar")
+            .put("/api/clientes/{id}/email", "email")
+            .get("/api/clientes/{id}", "cliente")
+            .build();
+
+    @Test
+    void literalTemPrioridadeQuandoAtendeOMetodo() {
+        Router.Rota<String> rota = router.match("POST", "/api/produtos/batch");
+
+        assertEquals(Router.Resultado.ENCONTRADA, rota.resultado());
+        assertEquals("lote", rota.acao());
+    }
+
+    @Test
+    void voltaParaAVariavelQuandoOLiteralNaoAtendeOMetodo() {
+        Router.Rota<String> rota = router.match("GET", "/api/produtos/batch");
+
+        assertEquals(Router.Resultado.ENCONTRADA, rota.resultado());
+        assertEquals("buscar", rota.acao());
+        assertEquals("batch", rota.var("/api/produtos/batch", 0));
+    }
+
+    @Test
+    void metodoNaoPermitidoQuandoNenhumRamoAtende() {
+        Router.Rota<String> rota = router.match("PUT", "/api/produtos/batch");
+
+        assertEquals(Router.Resultado.METODO_NAO_PERMITIDO, rota.resultado());
+    }
+
+    @Test
+    void variavelSeguidaDeLiteral() {
+        Router.Rota<String> rota = router.match("PUT", "/api/clientes/42/email");
+
+        assertEquals("email", rota.acao());
+        assertEquals(42L, rota.longVar("/api/clientes/42/email", 0));
+        assertEquals(Router.Resultado.NAO_ENCONTRADA, router.match("GET", "/api/clientes/42/outro").resultado());
+        assertEquals(Router.Resultado.NAO_ENCONTRADA, router.match("GET", "/api/produtos//x").resultado());
+    }
+}
@@ -0,0 +1,103 @@
+package com.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalCacheTest {
+
+    private final LocalCache<Long, String> cache = new LocalCache<>(64, 60_000L);
+
+    @Test
+    void cargaIniciadaAntesDaInvalidacaoNaoEhArmazenada() {
+        long token = cache.beginLoad();
+        cache.invalidate(1L);
+        cache.put(1L, "antigo", token);
+
+        assertEquals(Optional.empty(), cache.get(1L));
+
+        cache.put(1L, "novo", cache.beginLoad());
+        assertEquals(Optional.of("novo"), cache.get(1L));
+    }
+
+    @Test
+    void invalidacaoDeOutraChaveNaoDescartaACarga() {
+        long token = cache.beginLoad();
+        cache.invalidate(2L);
+        cache.put(1L, "valor", token);
+
+        assertEquals(Optional.of("valor"), cache.get(1L));
+    }
+
+    @Test
+    void invalidateAllDescartaCargasEmAndamento() {
+        long token = cache.beginLoad();
+        cache.invalidateAll();
+        cache.put(1L, "antigo", token);
+
+        assertEquals(Optional.empty(), cache.get(1L));
+    }
+
+    @Test
+    void estouroDosRegistrosDeInvalidacaoContinuaDescartandoCargasAntigas() {
+        long token = cache.beginLoad();
+        // Muito mais invalidações do que a capacidade do cache: os registros viram o piso do segmento
+        for (long id = 1; id <= 1_000; id++) {
+            cache.invalidate(id);
+        }
+        for (long id = 1; id <= 1_000; id++) {
+            cache.put(id, "antigo", token);
+        }
+
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    void leituraConcorrenteComEscritaNuncaDeixaValorAntigoNoCache() throws Exception {
+        AtomicLong banco = new AtomicLong();
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        int leitores = 4;
+        ExecutorService threads = Executors.newFixedThreadPool(leitores);
+        CountDownLatch fim = new CountDownLatch(leitores);
+        for (int i = 0; i < leitores; i++) {
+            threads.execute(() -> {
+                // Mesmo protocolo do serviço: marca o início, lê a origem e só então grava no cache
+                while (escrevendo.get()) {
+                    if (cache.get(1L).isEmpty()) {
+                        long token = cache.beginLoad();
+                        String lido = String.valueOf(banco.get());
+                        Thread.yield(); // ida e volta ao banco
+                        cache.put(1L, lido, token);
+                    }
+                }
+                fim.countDown();
+            });
+        }
+
+        long antigos = 0;
+        for (int versao = 1; versao <= 20_000; versao++) {
+            banco.set(versao);
+            cache.invalidate(1L);
+            Thread.yield();
+            // Depois da invalidação só pode haver no cache o que foi lido a partir desta versão
+            Optional<String> emCache = cache.get(1L);
+            if (emCache.isPresent() && Long.parseLong(emCache.get()) < versao) {
+                antigos++;
+            }
+        }
+        escrevendo.set(false);
+        assertTrue(fim.await(10, TimeUnit.SECONDS));
+        threads.shutdown();
+
+        assertEquals(0, antigos, "valores antigos sobreviveram à invalidação");
+    }
+}
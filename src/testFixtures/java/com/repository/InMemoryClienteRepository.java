@@ -0,0 +1,179 @@
+package com.repository;
+
+import com.entity.Cliente;
+import com.exception.ConflitoVersaoException;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class InMemoryClienteRepository extends ClienteRepository {
+
+    private final ConcurrentSkipListMap<Long, Cliente> clientes = new ConcurrentSkipListMap<>();
+    // Espelha o índice único ux_clientes_email_lower
+    private final ConcurrentHashMap<String, Long> emails = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public InMemoryClienteRepository() {
+        super(null);
+    }
+
+    public InMemoryClienteRepository popular(int quantidade) {
+        try {
+            for (int i = 0; i < quantidade; i++) {
+                salvar(Cliente.novo("Cliente " + i, "cliente" + i + "@exemplo.com", "1199999" + i, "Rua " + i));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return this;
+    }
+
+    @Override
+    public Cliente salvar(Cliente cliente) throws SQLException {
+        if (cliente.id() != null) {
+            Cliente anterior = clientes.get(cliente.id());
+            reservarEmail(cliente.id(), cliente.email());
+            clientes.put(cliente.id(), cliente);
+            liberarEmailAnterior(cliente.id(), anterior, cliente.email());
+            return cliente;
+        }
+        long id = sequence.incrementAndGet();
+        reservarEmail(id, cliente.email());
+        Cliente salvo = new Cliente(id, cliente.nome(), cliente.email(), cliente.telefone(), cliente.endereco(), 0L);
+        clientes.put(id, salvo);
+        return salvo;
+    }
+
+    @Override
+    public LoteClientes iniciarLote() throws SQLException {
+        throw new SQLException("Lotes não são suportados pelo repositório em memória");
+    }
+
+    @Override
+    public Optional<Cliente> buscarPorId(Long id) {
+        return Optional.ofNullable(clientes.get(id));
+    }
+
+    @Override
+    public List<Cliente> buscarPorIds(Collection<Long> ids) {
+        List<Cliente> encontrados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Cliente cliente = clientes.get(id);
+            if (cliente != null) {
+                encontrados.add(cliente);
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public List<Cliente> listarTodos() {
+        return new ArrayList<>(clientes.values());
+    }
+
+    @Override
+    public List<Cliente> listarPagina(Long after, int limit) {
+        List<Cliente> pagina = new ArrayList<>(limit);
+        for (Cliente cliente : clientes.tailMap(after == null ? 0L : after, false).values()) {
+            if (pagina.size() == limit) {
+                break;
+            }
+            pagina.add(cliente);
+        }
+        return pagina;
+    }
+
+    @Override
+    public List<Cliente> buscar(FiltroClientes filtro, Long after, int limit) {
+        List<Cliente> pagina = new ArrayList<>();
+        for (Cliente cliente : clientes.tailMap(after == null ? 0L : after, false).values()) {
+            if (pagina.size() == limit) {
+                break;
+            }
+            if ((filtro.email() == null || filtro.email().equalsIgnoreCase(cliente.email()))
+                    && (filtro.nome() == null || cliente.nome().toLowerCase().contains(filtro.nome().toLowerCase()))
+                    && (filtro.telefone() == null || filtro.telefone().equals(cliente.telefone()))) {
+                pagina.add(cliente);
+            }
+        }
+        return pagina;
+    }
+
+    @Override
+    public void percorrerTodos(Consumer<Cliente> consumidor) {
+        clientes.values().forEach(consumidor);
+    }
+
+    @Override
+    public Optional<Cliente> atualizar(Cliente cliente) throws SQLException {
+        Cliente anterior = clientes.get(cliente.id());
+        if (anterior == null) {
+            return Optional.empty();
+        }
+        reservarEmail(cliente.id(), cliente.email());
+        Cliente[] conflito = new Cliente[1];
+        Cliente atualizado = clientes.computeIfPresent(cliente.id(), (id, atual) -> {
+            if (cliente.versao() != null && !cliente.versao().equals(atual.versao())) {
+                conflito[0] = atual;
+                return atual;
+            }
+            return new Cliente(id, cliente.nome(), cliente.email(), cliente.telefone(), cliente.endereco(),
+                    atual.versao() + 1);
+        });
+        if (conflito[0] != null) {
+            liberarEmailAnterior(cliente.id(), cliente, conflito[0].email());
+            throw new ConflitoVersaoException("Cliente " + cliente.id() + " foi alterado por outra requisição",
+                    conflito[0].versao());
+        }
+        liberarEmailAnterior(cliente.id(), anterior, cliente.email());
+        return Optional.ofNullable(atualizado);
+    }
+
+    @Override
+    public boolean deletar(Long id) {
+        Cliente removido = clientes.remove(id);
+        if (removido == null) {
+            return false;
+        }
+        liberarEmailAnterior(id, removido, null);
+        return true;
+    }
+
+    @Override
+    public boolean atualizarEmailComProcedure(Long clientId, String novoEmail) throws SQLException {
+        Cliente anterior = clientes.get(clientId);
+        if (anterior == null) {
+            return false;
+        }
+        reservarEmail(clientId, novoEmail);
+        clientes.computeIfPresent(clientId, (id, c) -> new Cliente(id, c.nome(), novoEmail, c.telefone(), c.endereco(),
+                c.versao() + 1));
+        liberarEmailAnterior(clientId, anterior, novoEmail);
+        return true;
+    }
+
+    private void reservarEmail(Long id, String email) throws SQLException {
+        if (email == null) {
+            return;
+        }
+        Long dono = emails.putIfAbsent(email.toLowerCase(Locale.ROOT), id);
+        if (dono != null && !dono.equals(id)) {
+            throw new SQLException("duplicate key value violates unique constraint \"ux_clientes_email_lower\"",
+                    "23505");
+        }
+    }
+
+    private void liberarEmailAnterior(Long id, Cliente anterior, String emailAtual) {
+        if (anterior != null && anterior.email() != null && !anterior.email().equalsIgnoreCase(emailAtual)) {
+            emails.remove(anterior.email().toLowerCase(Locale.ROOT), id);
+        }
+    }
+}
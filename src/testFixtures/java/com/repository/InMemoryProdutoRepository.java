@@ -0,0 +1,167 @@
+package com.repository;
+
+import com.entity.Produto;
+import com.exception.ConflitoVersaoException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+public class InMemoryProdutoRepository extends ProdutoRepository {
+
+    private final ConcurrentSkipListMap<String, Produto> produtos = new ConcurrentSkipListMap<>();
+
+    public InMemoryProdutoRepository() {
+        super(null);
+    }
+
+    public InMemoryProdutoRepository popular(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            criar(Produto.novo("Produto " + i, BigDecimal.valueOf(10 + i % 500, 2), "Descrição do produto " + i));
+        }
+        return this;
+    }
+
+    public List<String> ids() {
+        return new ArrayList<>(produtos.keySet());
+    }
+
+    @Override
+    public Produto criar(Produto produto) {
+        String id = UUID.randomUUID().toString();
+        Produto criado = new Produto(id, produto.nome(), produto.preco(), produto.descricao(), 0L);
+        produtos.put(id, criado);
+        return criado;
+    }
+
+    @Override
+    public List<ResultadoEscrita> salvarEmLote(List<Produto> lote) {
+        List<ResultadoEscrita> resultados = new ArrayList<>(lote.size());
+        for (Produto produto : lote) {
+            Produto salvo = produto.id() == null ? criar(produto) : produtos.merge(produto.id(),
+                    new Produto(produto.id(), produto.nome(), produto.preco(), produto.descricao(), 1L),
+                    (atual, novo) -> new Produto(atual.id(), novo.nome(), novo.preco(), novo.descricao(), atual.versao() + 1));
+            resultados.add(new ResultadoEscrita(salvo, null));
+        }
+        return resultados;
+    }
+
+    @Override
+    public Optional<Produto> buscarPorId(String id) {
+        return Optional.ofNullable(produtos.get(id));
+    }
+
+    @Override
+    public List<Produto> buscarPorIds(Collection<String> ids) {
+        List<Produto> encontrados = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Produto produto = produtos.get(id);
+            if (produto != null) {
+                encontrados.add(produto);
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public List<Produto> listarTodos() {
+        return new ArrayList<>(produtos.values());
+    }
+
+    @Override
+    public List<Produto> listarPagina(String after, int limit) {
+        List<Produto> pagina = new ArrayList<>(limit);
+        for (Produto produto : (after == null ? produtos : produtos.tailMap(after, false)).values()) {
+            if (pagina.size() == limit) {
+                break;
+            }
+            pagina.add(produto);
+        }
+        return pagina;
+    }
+
+    @Override
+    public void criarIndices() {
+    }
+
+    @Override
+    public List<Produto> buscar(FiltroProdutos filtro, BigDecimal precoApos, String idApos, int limit) {
+        Comparator<Produto> ordem = Comparator.comparing(Produto::id);
+        if (filtro.ordenacao() == OrdenacaoProdutos.PRECO_ASC) {
+            ordem = Comparator.comparing(Produto::preco).thenComparing(Produto::id);
+        } else if (filtro.ordenacao() == OrdenacaoProdutos.PRECO_DESC) {
+            ordem = Comparator.comparing(Produto::preco).thenComparing(Produto::id).reversed();
+        }
+        Produto cursor = idApos == null ? null : new Produto(idApos, null, precoApos, null, null);
+        Comparator<Produto> comparador = ordem;
+        return produtos.values().stream()
+                .filter(p -> filtro.texto() == null || contemTexto(p, filtro.texto()))
+                .filter(p -> filtro.precoMin() == null || p.preco().compareTo(filtro.precoMin()) >= 0)
+                .filter(p -> filtro.precoMax() == null || p.preco().compareTo(filtro.precoMax()) <= 0)
+                .filter(p -> cursor == null || (cursor.preco() == null
+                        ? p.id().compareTo(cursor.id()) > 0
+                        : comparador.compare(p, cursor) > 0))
+                .sorted(ordem)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean contemTexto(Produto produto, String texto) {
+        String termo = texto.toLowerCase();
+        return produto.nome().toLowerCase().contains(termo)
+                || (produto.descricao() != null && produto.descricao().toLowerCase().contains(termo));
+    }
+
+    @Override
+    public void percorrerTodos(Consumer<Produto> consumidor) {
+        produtos.values().forEach(consumidor);
+    }
+
+    @Override
+    public Optional<Produto> atualizar(Produto produto) {
+        if (produto.id() == null) {
+            return Optional.empty();
+        }
+        return atualizarComVersao(produto.id(), produto.versao(),
+                atual -> new Produto(atual.id(), produto.nome(), produto.preco(), produto.descricao(), atual.versao() + 1));
+    }
+
+    @Override
+    public Optional<Produto> atualizarParcial(String id, String nome, BigDecimal preco, String descricao,
+                                              Long versaoEsperada) {
+        return atualizarComVersao(id, versaoEsperada, atual -> new Produto(id,
+                nome != null ? nome : atual.nome(),
+                preco != null ? preco : atual.preco(),
+                descricao != null ? descricao : atual.descricao(),
+                atual.versao() + 1));
+    }
+
+    private Optional<Produto> atualizarComVersao(String id, Long versaoEsperada, UnaryOperator<Produto> alteracao) {
+        Produto[] conflito = new Produto[1];
+        Produto atualizado = produtos.computeIfPresent(id, (chave, atual) -> {
+            if (versaoEsperada != null && !versaoEsperada.equals(atual.versao())) {
+                conflito[0] = atual;
+                return atual;
+            }
+            return alteracao.apply(atual);
+        });
+        if (conflito[0] != null) {
+            throw new ConflitoVersaoException("Produto " + id + " foi alterado por outra requisição",
+                    conflito[0].versao());
+        }
+        return Optional.ofNullable(atualizado);
+    }
+
+    @Override
+    public boolean deletar(String id) {
+        return produtos.remove(id) != null;
+    }
+}